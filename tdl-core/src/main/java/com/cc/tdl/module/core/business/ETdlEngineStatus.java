@@ -10,5 +10,7 @@ package com.cc.tdl.module.core.business;
  */
 public enum ETdlEngineStatus {
 
-    NONE;
+    NONE,
+    STARTED,
+    STOPPED;
 }
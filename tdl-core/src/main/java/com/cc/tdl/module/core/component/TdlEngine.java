@@ -1,10 +1,34 @@
 package com.cc.tdl.module.core.component;
 
 import com.cc.tdl.module.core.business.ETdlEngineStatus;
+import com.cc.tdl.module.core.component.rules.TdlRuleSet;
+import com.cc.tdl.module.core.component.rules.TdlStatTable;
+import com.cc.tdl.module.core.component.rules.TdlStats;
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.NonNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * <p>
- *                  Moteur principal de jeu
+ *                  Moteur principal de jeu.
+ *
+ *                  Un moteur gère les personnages d'une zone et exécute ses sous-systèmes
+ *                  à chaque tour. Il n'est pas thread-safe : il appartient au thread qui
+ *                  exécute ses tours.
+ *
+ *                  Un moteur doté d'un ensemble de règles possède la table des statistiques de
+ *                  ses personnages : un personnage ajouté y reçoit un emplacement initialisé à
+ *                  partir de ses statistiques de base ; un personnage retiré y récupère ses
+ *                  statistiques de base avant que son emplacement ne soit libéré. Un personnage
+ *                  transféré d'un moteur à l'autre emporte ainsi ses valeurs dans la table du
+ *                  moteur cible. La table est rafraîchie au début de chaque tour (voir
+ *                  {@link TdlStatTable}).
  * </p>
  *
  * @author Cyril Chevalier
@@ -12,6 +36,29 @@ import com.cc.tdl.module.core.business.ETdlEngineStatus;
  */
 public class TdlEngine {
 
+    // Membres internes
+    private final Map<Long, TdlCharacter>           characters = new LinkedHashMap<>();
+    private final Option<TdlStatTable>              statTable;
+    private final Map<Long, TdlStats>               stats = new HashMap<>();
+    private Seq<TdlTickListener>                    tickListeners = List.empty();
+    private ETdlEngineStatus                        status = ETdlEngineStatus.NONE;
+    private long                                    currentTick;
+
+    /**
+     * Constructeur d'un moteur sans statistiques
+     */
+    public TdlEngine() {
+        this.statTable = Option.none();
+    }
+
+    /**
+     * Constructeur d'un moteur gérant les statistiques de ses personnages
+     * @param ruleSet Ensemble de règles des statistiques
+     */
+    public TdlEngine(@NonNull TdlRuleSet ruleSet) {
+        this.statTable = Option.of(new TdlStatTable(ruleSet));
+    }
+
     // ----------------------------------------------- Méthodes publiques -------------------------------------------
 
     /**
@@ -19,6 +66,123 @@ public class TdlEngine {
      * @return
      */
     public ETdlEngineStatus getStatus() {
-        return ETdlEngineStatus.NONE;
+        return this.status;
+    }
+
+    /**
+     * Démarre le moteur
+     */
+    public void start() {
+        this.status = ETdlEngineStatus.STARTED;
+    }
+
+    /**
+     * Arrête le moteur
+     */
+    public void stop() {
+        this.status = ETdlEngineStatus.STOPPED;
+    }
+
+    /**
+     * Retourne le numéro du dernier tour exécuté
+     * @return
+     */
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     * Ajoute un sous-système exécuté à chaque tour, après ceux déjà ajoutés
+     * @param listener Sous-système
+     */
+    public void addTickListener(@NonNull TdlTickListener listener) {
+        this.tickListeners = this.tickListeners.append(listener);
+    }
+
+    /**
+     * Ajoute (ou remplace) un personnage dans le moteur. Si le moteur gère les statistiques, le personnage
+     * reçoit un emplacement initialisé à partir de ses statistiques de base.
+     * @param character Personnage
+     */
+    public void addCharacter(@NonNull TdlCharacter character) {
+        this.characters.put(character.getId(), character);
+        this.statTable.forEach(table -> {
+            TdlStats previous = this.stats.remove(character.getId());
+            if (previous != null) {
+                previous.release();
+            }
+            TdlStats allocated = table.allocate();
+            allocated.setBaseValues(character.getBaseStats());
+            this.stats.put(character.getId(), allocated);
+        });
+    }
+
+    /**
+     * Retire un personnage du moteur. Si le moteur gère les statistiques, les statistiques de base du
+     * personnage sont mises à jour et son emplacement est libéré.
+     * @param id Identifiant du personnage
+     * @return Le personnage retiré, ou vide s'il n'était pas géré par ce moteur
+     */
+    public Option<TdlCharacter> removeCharacter(@NonNull Long id) {
+        Option<TdlCharacter> result = Option.of(this.characters.remove(id));
+        TdlStats detached = this.stats.remove(id);
+        if (detached != null) {
+            result.forEach(character -> character.setBaseStats(detached.getBaseValues()));
+            detached.release();
+        }
+        return result;
+    }
+
+    /**
+     * Retourne les statistiques d'un personnage géré par le moteur
+     * @param id Identifiant du personnage
+     * @return Les statistiques, ou vide si le personnage n'est pas géré ou si le moteur ne gère pas les statistiques
+     */
+    public Option<TdlStats> getStats(@NonNull Long id) {
+        return Option.of(this.stats.get(id));
+    }
+
+    /**
+     * Retourne la table des statistiques du moteur
+     * @return La table, ou vide si le moteur ne gère pas les statistiques
+     */
+    public Option<TdlStatTable> getStatTable() {
+        return this.statTable;
+    }
+
+    /**
+     * Recopie dans chaque personnage ses statistiques de base courantes, par exemple avant sa sauvegarde
+     */
+    public void syncStats() {
+        this.stats.forEach((id, values) -> this.characters.get(id).setBaseStats(values.getBaseValues()));
+    }
+
+    /**
+     * Retourne un personnage géré par le moteur
+     * @param id Identifiant du personnage
+     * @return
+     */
+    public Option<TdlCharacter> getCharacter(@NonNull Long id) {
+        return Option.of(this.characters.get(id));
+    }
+
+    /**
+     * Retourne les personnages gérés par le moteur
+     * @return
+     */
+    public Seq<TdlCharacter> getCharacters() {
+        return List.ofAll(this.characters.values());
+    }
+
+    /**
+     * Exécute un tour : les statistiques périmées sont recalculées, puis tous les sous-systèmes
+     * sont appelés dans leur ordre d'ajout
+     * @return Le numéro du tour exécuté
+     */
+    public long tick() {
+        long tick = ++this.currentTick;
+        this.statTable.forEach(TdlStatTable::recomputeAll);
+        this.tickListeners.forEach(listener -> listener.onTick(this, tick));
+        return tick;
     }
 }
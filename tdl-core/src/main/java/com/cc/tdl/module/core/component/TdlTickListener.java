@@ -0,0 +1,20 @@
+package com.cc.tdl.module.core.component;
+
+/**
+ * <p>
+ *                  Interface représentant un sous-système exécuté à chaque tour du moteur
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@FunctionalInterface
+public interface TdlTickListener {
+
+    /**
+     * Exécute le sous-système pour un tour
+     * @param engine Moteur
+     * @param tick Numéro du tour
+     */
+    void onTick(TdlEngine engine, long tick);
+}
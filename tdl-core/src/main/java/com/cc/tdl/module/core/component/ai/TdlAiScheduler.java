@@ -0,0 +1,303 @@
+package com.cc.tdl.module.core.component.ai;
+
+import com.cc.tdl.module.core.data.TdlAiDecision;
+import com.cc.tdl.module.core.data.TdlAiTickResult;
+import com.cc.tdl.module.core.data.TdlCharacter;
+import com.cc.tools.helper.ThreadsHelper;
+import io.vavr.Function1;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ *                  Ordonnanceur des comportements des personnages non joueurs.
+ *
+ *                  Les personnages sont rangés dans un tas persistant, par ordre de passage
+ *                  virtuel : chaque évaluation repousse le passage suivant d'un personnage d'un
+ *                  pas inversement proportionnel à son importance. A chaque tour, les personnages
+ *                  sont retirés du tas dans cet ordre et évalués jusqu'à épuisement du budget de
+ *                  temps, qui couvre le tour entier ; les personnages non évalués conservent leur
+ *                  passage et sont donc servis en priorité aux tours suivants, ce qui garantit
+ *                  qu'aucun ne soit affamé. Le coût d'un tour ne dépend que du nombre de
+ *                  personnages évalués, pas du nombre de personnages enregistrés.
+ *
+ *                  L'évaluation est répartie entre le thread du tour et un pool de threads ;
+ *                  les décisions sont retournées au thread du tour, seul habilité à les appliquer.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Slf4j
+public class TdlAiScheduler<D> implements AutoCloseable {
+
+    // Constantes publiques
+    public static final String                                  ERR_SCHEDULER_CLOSED = "L'ordonnanceur de comportements est fermé";
+
+    // Constantes privées
+    private static final double                                 MIN_IMPORTANCE = 1e-6;
+    private static final int                                    MIN_PURGE_SIZE = 64;
+
+    // Membres internes
+    private final long                                          tickBudgetNanos;
+    private final int                                           parallelism;
+    private final Function1<TdlCharacter, Double>               importance;
+    private final Map<Long, Agent<D>>                           agents = new HashMap<>();
+    private final PriorityQueue<Agent<D>>                       queue = new PriorityQueue<>(
+            Comparator.comparingDouble((Agent<D> a) -> a.pass).thenComparingLong(a -> a.sequence));
+    private final ExecutorService                               workers;
+    private double                                              virtualTime;
+    private long                                                sequence;
+    private volatile boolean                                    closed;
+
+    /**
+     * Constructeur
+     * @param config Configuration de l'ordonnanceur
+     */
+    public TdlAiScheduler(@NonNull TdlAiSchedulerConfig config) {
+        this.tickBudgetNanos = Math.max(0L, config.getTickBudgetNanos());
+        this.parallelism = Math.max(1, config.getParallelism());
+        this.importance = config.getImportance();
+        this.workers = this.parallelism > 1
+                ? Executors.newFixedThreadPool(this.parallelism - 1, ThreadsHelper.daemonThreadFactory("tdl-ai-worker"))
+                : null;
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Enregistre (ou remplace) le comportement d'un personnage non joueur. Le personnage est placé
+     * au passage virtuel courant : il est évalué après les personnages déjà en attente.
+     * @param character Personnage
+     * @param behaviour Comportement
+     */
+    public synchronized void register(@NonNull TdlCharacter character, @NonNull TdlBehaviour<D> behaviour) {
+        Agent<D> agent = new Agent<>(character, behaviour, this.virtualTime, this.sequence++);
+        Agent<D> previous = this.agents.put(character.getId(), agent);
+        if (previous != null) {
+            previous.removed = true;
+        }
+        this.queue.add(agent);
+        this.purgeIfNeeded();
+    }
+
+    /**
+     * Retire un personnage de l'ordonnanceur
+     * @param id Identifiant du personnage
+     * @return Vrai si le personnage était enregistré
+     */
+    public synchronized boolean unregister(@NonNull Long id) {
+        Agent<D> agent = this.agents.remove(id);
+        if (agent == null) {
+            return false;
+        }
+        // Retrait paresseux : l'agent est ignoré lorsqu'il atteint le sommet du tas
+        agent.removed = true;
+        this.purgeIfNeeded();
+        return true;
+    }
+
+    /**
+     * Retourne le nombre de personnages enregistrés
+     * @return
+     */
+    public synchronized int size() {
+        return this.agents.size();
+    }
+
+    /**
+     * Evalue les comportements pour un tour de jeu, dans la limite du budget de temps.
+     * Le personnage le plus prioritaire est toujours évalué, même si le budget est nul.
+     * @param tick Numéro du tour
+     * @return Les décisions prises et le nombre de personnages reportés
+     * @throws IllegalStateException Si l'ordonnanceur est fermé
+     */
+    public TdlAiTickResult<D> tick(long tick) {
+        this.checkOpen();
+        long start = System.nanoTime();
+        long deadline = start + this.tickBudgetNanos;
+        Round round = new Round(tick, this.size(), deadline);
+        int workerCount = Math.min(this.parallelism, Math.max(1, round.limit));
+        ArrayList<CompletableFuture<ArrayList<TdlAiDecision<D>>>> futures = new ArrayList<>();
+        for (int i = 1; i < workerCount; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> this.evaluate(round), this.workers));
+        }
+        List<TdlAiDecision<D>> decisions = List.ofAll(this.evaluate(round));
+        for (CompletableFuture<ArrayList<TdlAiDecision<D>>> future : futures) {
+            decisions = decisions.appendAll(future.join());
+        }
+        synchronized (this) {
+            round.postponed.forEach(this.queue::add);
+        }
+        int evaluated = round.claimed.get();
+        return TdlAiTickResult.<D>builder()
+                .decisions(decisions)
+                .evaluatedCount(evaluated)
+                .deferredCount(Math.max(0, round.limit - evaluated))
+                .elapsedNanos(System.nanoTime() - start)
+                .build();
+    }
+
+    /**
+     * Arrête le pool de threads d'évaluation
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        if (this.workers != null) {
+            this.workers.shutdown();
+        }
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Vérifie que l'ordonnanceur n'est pas fermé
+     */
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException(ERR_SCHEDULER_CLOSED);
+        }
+    }
+
+    /**
+     * Boucle d'un thread d'évaluation : retire le personnage suivant du tas tant que le budget le permet,
+     * l'évalue puis l'y replace à son nouveau passage
+     * @param round Tour en cours
+     * @return Les décisions prises par ce thread
+     */
+    private ArrayList<TdlAiDecision<D>> evaluate(Round round) {
+        ArrayList<TdlAiDecision<D>> result = new ArrayList<>();
+        Agent<D> agent = this.next(round, null);
+        while (agent != null) {
+            Agent<D> current = agent;
+            try {
+                Option<D> decision = current.behaviour.evaluate(current.character);
+                decision.forEach(d -> result.add(TdlAiDecision.of(current.character.getId(), d, round.tick)));
+            }
+            catch (RuntimeException e) {
+                log.warn("Echec de l'évaluation du comportement du personnage {}", current.character.getId(), e);
+            }
+            double weight;
+            try {
+                weight = Math.max(MIN_IMPORTANCE, this.importance.apply(current.character));
+            }
+            catch (RuntimeException e) {
+                log.warn("Echec du calcul de l'importance du personnage {}", current.character.getId(), e);
+                weight = 1.0;
+            }
+            current.pass += 1.0 / weight;
+            agent = this.next(round, current);
+        }
+        return result;
+    }
+
+    /**
+     * Replace dans le tas le personnage qui vient d'être évalué, puis en retire le prochain personnage à évaluer
+     * si le budget le permet. Un personnage déjà évalué pendant ce tour est mis de côté jusqu'à la fin du tour.
+     * @param round Tour en cours
+     * @param evaluated Personnage qui vient d'être évalué (null au premier appel)
+     * @return Le personnage, ou null si le tour est terminé
+     */
+    private synchronized Agent<D> next(Round round, Agent<D> evaluated) {
+        if (evaluated != null && !evaluated.removed) {
+            this.queue.add(evaluated);
+        }
+        while (round.claimed.get() < round.limit && (round.claimed.get() == 0 || System.nanoTime() < round.deadline)) {
+            Agent<D> agent = this.queue.poll();
+            if (agent == null) {
+                return null;
+            }
+            if (agent.removed) {
+                continue;
+            }
+            if (agent.evaluatedTick == round.tick) {
+                round.postponed.add(agent);
+                continue;
+            }
+            agent.evaluatedTick = round.tick;
+            round.claimed.incrementAndGet();
+            this.virtualTime = Math.max(this.virtualTime, agent.pass);
+            return agent;
+        }
+        return null;
+    }
+
+    /**
+     * Purge le tas des personnages retirés lorsqu'ils y sont majoritaires
+     */
+    private void purgeIfNeeded() {
+        if (this.queue.size() > MIN_PURGE_SIZE && this.queue.size() > 2 * this.agents.size()) {
+            this.queue.removeIf(a -> a.removed);
+        }
+    }
+
+    // ----------------------------------------------- Classes internes -------------------------------------------
+
+    /**
+     * <p>
+     *                  Personnage non joueur enregistré et son état d'ordonnancement
+     * </p>
+     */
+    private static class Agent<D> {
+
+        // Membres internes
+        private final TdlCharacter                  character;
+        private final TdlBehaviour<D>               behaviour;
+        private final long                          sequence;
+        private double                              pass;
+        private long                                evaluatedTick = Long.MIN_VALUE;
+        private volatile boolean                    removed;
+
+        /**
+         * @param character
+         * @param behaviour
+         * @param pass
+         * @param sequence
+         */
+        Agent(TdlCharacter character, TdlBehaviour<D> behaviour, double pass, long sequence) {
+            this.character = character;
+            this.behaviour = behaviour;
+            this.pass = pass;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * <p>
+     *                  Etat d'un tour d'évaluation, partagé par les threads d'évaluation
+     * </p>
+     */
+    private class Round {
+
+        // Membres internes
+        private final long                          tick;
+        private final int                           limit;
+        private final long                          deadline;
+        private final AtomicInteger                 claimed = new AtomicInteger();
+        private final ArrayList<Agent<D>>           postponed = new ArrayList<>();
+
+        /**
+         * @param tick
+         * @param limit
+         * @param deadline
+         */
+        Round(long tick, int limit, long deadline) {
+            this.tick = tick;
+            this.limit = limit;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.cc.tdl.module.core.component.ai;
+
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.Function1;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * <p>
+ *                  Configuration de l'ordonnanceur des comportements
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Data
+@Builder
+public class TdlAiSchedulerConfig {
+
+    // Membres internes
+    /** Budget de temps d'un tour (ordonnancement et évaluation des comportements), en nanosecondes */
+    @Builder.Default
+    private long                                        tickBudgetNanos = 5_000_000L;
+    /** Nombre de threads évaluant les comportements (thread du tour inclus) */
+    @Builder.Default
+    private int                                         parallelism = Runtime.getRuntime().availableProcessors();
+    /** Importance d'un personnage (proximité des joueurs...), strictement positive, recalculée après chaque
+     * évaluation : un personnage deux fois plus important est évalué deux fois plus souvent */
+    @Builder.Default
+    private Function1<TdlCharacter, Double>             importance = character -> 1.0;
+}
@@ -0,0 +1,30 @@
+package com.cc.tdl.module.core.component.ai;
+
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.control.Option;
+
+/**
+ * <p>
+ *                  Interface représentant le comportement d'un personnage non joueur
+ *                  (arbre de comportement, score d'utilité...).
+ *
+ *                  L'évaluation peut être exécutée en parallèle sur plusieurs personnages :
+ *                  elle ne doit modifier que des données propres au personnage évalué
+ *                  et exprimer ses effets sous la forme d'une décision (voir
+ *                  {@link com.cc.tdl.module.core.component.rules.TdlStatTable} pour la lecture des
+ *                  statistiques).
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@FunctionalInterface
+public interface TdlBehaviour<D> {
+
+    /**
+     * Evalue le comportement d'un personnage
+     * @param character Personnage évalué
+     * @return La décision prise, ou vide si le personnage ne change pas d'action
+     */
+    Option<D> evaluate(TdlCharacter character);
+}
@@ -0,0 +1,82 @@
+package com.cc.tdl.module.core.component.ai;
+
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.Function1;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.NonNull;
+
+/**
+ * <p>
+ *                  Comportement basé sur des scores d'utilité : chaque décision possible
+ *                  est associée à une fonction de score, la décision de meilleur score
+ *                  est retenue si elle atteint le seuil minimum.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public class TdlUtilityBehaviour<D> implements TdlBehaviour<D> {
+
+    // Membres internes
+    private final Seq<Tuple2<D, Function1<TdlCharacter, Double>>>      scorers;
+    private final double                                                threshold;
+
+    /**
+     * Constructeur
+     * @param scorers Couples (décision, fonction de score)
+     * @param threshold Score minimum pour retenir une décision
+     */
+    public TdlUtilityBehaviour(@NonNull Seq<Tuple2<D, Function1<TdlCharacter, Double>>> scorers, double threshold) {
+        this.scorers = scorers;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Constructeur sans seuil
+     * @param scorers Couples (décision, fonction de score)
+     */
+    public TdlUtilityBehaviour(@NonNull Seq<Tuple2<D, Function1<TdlCharacter, Double>>> scorers) {
+        this(scorers, Double.NEGATIVE_INFINITY);
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Retourne un nouveau comportement auquel une décision possible a été ajoutée
+     * @param decision Décision
+     * @param scorer Fonction de score
+     * @return
+     */
+    public TdlUtilityBehaviour<D> with(D decision, @NonNull Function1<TdlCharacter, Double> scorer) {
+        return new TdlUtilityBehaviour<>(this.scorers.append(Tuple.of(decision, scorer)), this.threshold);
+    }
+
+    /**
+     * Retourne un comportement d'utilité sans décision
+     * @param threshold Score minimum pour retenir une décision
+     * @return
+     */
+    public static <D> TdlUtilityBehaviour<D> empty(double threshold) {
+        return new TdlUtilityBehaviour<>(List.empty(), threshold);
+    }
+
+    @Override
+    public Option<D> evaluate(TdlCharacter character) {
+        D best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        boolean found = false;
+        for (Tuple2<D, Function1<TdlCharacter, Double>> scorer : this.scorers) {
+            double score = scorer._2().apply(character);
+            if (found ? score > bestScore : score >= this.threshold) {
+                best = scorer._1();
+                bestScore = score;
+                found = true;
+            }
+        }
+        return found ? Option.of(best) : Option.none();
+    }
+}
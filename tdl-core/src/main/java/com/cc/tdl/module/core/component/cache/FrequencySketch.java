@@ -0,0 +1,118 @@
+package com.cc.tdl.module.core.component.cache;
+
+/**
+ * <p>
+ *                  Estimateur de fréquence d'accès (count-min sketch à compteurs
+ *                  de 4 bits) utilisé pour la politique d'admission TinyLFU.
+ *                  Les compteurs sont regroupés par seize dans des entiers longs,
+ *                  soit un demi-octet par compteur.
+ *                  Les compteurs sont divisés par deux périodiquement afin que
+ *                  l'historique ancien perde de son poids.
+ *
+ *                  Cette classe n'est pas thread-safe : elle est protégée par le cache.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+class FrequencySketch {
+
+    // Constantes privées
+    private static final int[]              SEEDS = { 0x97cb3127, 0xb1cf3a4d, 0x9e3779b9, 0x7f4a7c15 };
+    private static final int                MAX_COUNT = 15;
+    private static final int                MIN_WIDTH = 16;
+    private static final int                MAX_WIDTH = 1 << 24;
+    private static final int                SAMPLE_FACTOR = 10;
+    private static final long               RESET_MASK = 0x7777777777777777L;
+
+    // Membres internes
+    private final long[][]                  rows;
+    private final int                       mask;
+    private final int                       sampleSize;
+    private int                             additions;
+
+    /**
+     * Constructeur
+     * @param expectedEntries Nombre d'entrées attendues dans le cache
+     */
+    FrequencySketch(long expectedEntries) {
+        int width = Integer.highestOneBit((int) Math.max(MIN_WIDTH, Math.min(MAX_WIDTH, expectedEntries)) - 1) << 1;
+        this.rows = new long[SEEDS.length][width >>> 4];
+        this.mask = width - 1;
+        this.sampleSize = SAMPLE_FACTOR * width;
+    }
+
+    // ----------------------------------------------- Méthodes ------------------------------------------------------
+
+    /**
+     * Incrémente la fréquence estimée d'une clé
+     * @param key Clé
+     */
+    void increment(long key) {
+        int hash = spread(key);
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = this.indexOf(hash, i);
+            int shift = (index & 15) << 2;
+            long[] row = this.rows[i];
+            if (((row[index >>> 4] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+                row[index >>> 4] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++this.additions >= this.sampleSize) {
+            this.reset();
+        }
+    }
+
+    /**
+     * Retourne la fréquence estimée d'une clé
+     * @param key Clé
+     * @return
+     */
+    int frequency(long key) {
+        int hash = spread(key);
+        int result = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = this.indexOf(hash, i);
+            result = Math.min(result, (int) ((this.rows[i][index >>> 4] >>> ((index & 15) << 2)) & MAX_COUNT));
+        }
+        return result;
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Divise tous les compteurs par deux (vieillissement)
+     */
+    private void reset() {
+        for (long[] row : this.rows) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = (row[i] >>> 1) & RESET_MASK;
+            }
+        }
+        this.additions >>>= 1;
+    }
+
+    /**
+     * Retourne l'index du compteur d'une clé dans une ligne du sketch
+     * @param hash Hash de la clé
+     * @param row Ligne
+     * @return
+     */
+    private int indexOf(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        return (h ^ (h >>> 16)) & this.mask;
+    }
+
+    /**
+     * Mélange les bits d'une clé
+     * @param key Clé
+     * @return
+     */
+    private static int spread(long key) {
+        long h = key * 0xbf58476d1ce4e5b9L;
+        h ^= h >>> 31;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,629 @@
+package com.cc.tdl.module.core.component.cache;
+
+import com.cc.tdl.module.core.data.TdlCacheStats;
+import com.cc.tdl.module.core.data.TdlCharacter;
+import com.cc.tools.helper.ThreadsHelper;
+import io.vavr.Function1;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ *                  Cache des personnages indexé par identifiant, borné en poids.
+ *
+ *                  La politique d'éviction est de type W-TinyLFU : les nouveaux personnages
+ *                  entrent dans une petite fenêtre LRU, puis sont admis dans la zone principale
+ *                  (segments probatoire et protégé) uniquement si leur fréquence d'accès estimée
+ *                  est supérieure à celle de la victime désignée.
+ *
+ *                  Les personnages absents sont chargés de manière asynchrone depuis un
+ *                  {@link TdlCharacterStore}. Les personnages modifiés sont écrits dans ce même
+ *                  stockage par lots, en différé ; un personnage modifié évincé reste en attente
+ *                  d'écriture (et lisible) tant qu'il n'a pas été écrit.
+ *
+ *                  Un personnage confié à l'écriture différée est copié sous le verrou du cache :
+ *                  l'instance vivante peut être modifiée pendant l'écriture sans produire
+ *                  d'écriture incohérente. Inversement, un personnage relu depuis l'attente
+ *                  d'écriture est une copie, distincte de celle en cours d'écriture.
+ *
+ *                  Le poids des personnages en attente d'écriture est borné : au-delà de la limite,
+ *                  une modification déclenche d'abord une écriture synchrone, puis est refusée si
+ *                  le stockage n'a pas pu absorber l'attente ; l'attente ne dépasse donc jamais sa
+ *                  limite augmentée du poids des résidents. Un chargement pendant lequel une
+ *                  écriture du même personnage s'est terminée est relancé, afin de ne jamais
+ *                  réintégrer une version antérieure à celle écrite.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Slf4j
+public class TdlCharacterCache implements AutoCloseable {
+
+    // Constantes publiques
+    public static final String                                              ERR_CACHE_CLOSED = "Le cache de personnages est fermé";
+    public static final String                                              ERR_CACHE_BACKLOG = "Ecriture différée saturée : poids de {0} en attente pour une limite de {1}";
+
+    // Membres internes
+    private final TdlCharacterStore                                         store;
+    private final Function1<TdlCharacter, Integer>                          weigher;
+    private final Function1<TdlCharacter, TdlCharacter>                     copier;
+    private final int                                                       writeBehindBatchSize;
+    private final long                                                      maximumWeight;
+    private final long                                                      maximumPendingWeight;
+    private final long                                                      windowMaxWeight;
+    private final long                                                      protectedMaxWeight;
+    private final FrequencySketch                                           sketch;
+    private final Map<Long, Node>                                           data = new HashMap<>();
+    private final LinkedHashSet<Node>                                       window = new LinkedHashSet<>();
+    private final LinkedHashSet<Node>                                       probation = new LinkedHashSet<>();
+    private final LinkedHashSet<Node>                                       protectedSegment = new LinkedHashSet<>();
+    private final Set<Long>                                                 dirtyKeys = new LinkedHashSet<>();
+    private long                                                            windowWeight;
+    private long                                                            probationWeight;
+    private long                                                            protectedWeight;
+    private final ConcurrentMap<Long, TdlCharacter>                         pendingWrites = new ConcurrentHashMap<>();
+    private final AtomicLong                                                pendingWeight = new AtomicLong();
+    private final Set<Long>                                                 staleLoads = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, CompletableFuture<Option<TdlCharacter>>> loadings = new ConcurrentHashMap<>();
+    private final Executor                                                  loaderExecutor;
+    private final ExecutorService                                           ownedLoaderExecutor;
+    private final ScheduledExecutorService                                  writer;
+    private final Object                                                    flushLock = new Object();
+    private volatile boolean                                                closed;
+
+    // Statistiques
+    private final LongAdder                                                 hitCount = new LongAdder();
+    private final LongAdder                                                 missCount = new LongAdder();
+    private final LongAdder                                                 loadSuccessCount = new LongAdder();
+    private final LongAdder                                                 loadFailureCount = new LongAdder();
+    private final LongAdder                                                 totalLoadTimeNanos = new LongAdder();
+    private final LongAdder                                                 evictionCount = new LongAdder();
+    private final LongAdder                                                 evictionWeight = new LongAdder();
+    private final LongAdder                                                 writeCount = new LongAdder();
+    private final LongAdder                                                 writeFailureCount = new LongAdder();
+
+    /**
+     * Constructeur
+     * @param store Stockage local des personnages
+     * @param config Configuration du cache
+     */
+    public TdlCharacterCache(@NonNull TdlCharacterStore store, @NonNull TdlCharacterCacheConfig config) {
+        this.store = store;
+        this.weigher = config.getWeigher();
+        this.copier = config.getCopier();
+        this.writeBehindBatchSize = Math.max(1, config.getWriteBehindBatchSize());
+        this.maximumWeight = Math.max(1L, config.getMaximumWeight());
+        this.maximumPendingWeight = config.getMaximumPendingWeight() > 0 ? config.getMaximumPendingWeight() : this.maximumWeight;
+        this.windowMaxWeight = Math.max(1L, (long) (this.maximumWeight * config.getWindowRatio()));
+        this.protectedMaxWeight = (long) ((this.maximumWeight - this.windowMaxWeight) * config.getProtectedRatio());
+        this.sketch = new FrequencySketch(config.getExpectedEntries() > 0 ? config.getExpectedEntries() : this.maximumWeight);
+        if (config.getLoaderExecutor() != null) {
+            this.ownedLoaderExecutor = null;
+            this.loaderExecutor = config.getLoaderExecutor();
+        }
+        else {
+            this.ownedLoaderExecutor = Executors.newFixedThreadPool(Math.max(1, config.getLoaderThreads()),
+                    ThreadsHelper.daemonThreadFactory("tdl-cache-loader"));
+            this.loaderExecutor = this.ownedLoaderExecutor;
+        }
+        this.writer = Executors.newSingleThreadScheduledExecutor(ThreadsHelper.daemonThreadFactory("tdl-cache-writer"));
+        long delay = Math.max(1L, config.getWriteBehindDelayMillis());
+        this.writer.scheduleWithFixedDelay(this::flush, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Retourne un personnage. S'il n'est pas résident, il est chargé de manière asynchrone depuis le stockage ;
+     * les demandes concurrentes sur un même identifiant partagent le même chargement.
+     * @param id Identifiant du personnage
+     * @return Un futur contenant le personnage, ou vide s'il n'existe pas
+     */
+    public CompletableFuture<Option<TdlCharacter>> get(@NonNull Long id) {
+        this.checkOpen();
+        synchronized (this) {
+            Option<TdlCharacter> present = this.lookup(id);
+            if (present.isDefined()) {
+                this.hitCount.increment();
+                return CompletableFuture.completedFuture(present);
+            }
+        }
+        this.missCount.increment();
+        CompletableFuture<Option<TdlCharacter>> loading = new CompletableFuture<>();
+        CompletableFuture<Option<TdlCharacter>> existing = this.loadings.putIfAbsent(id, loading);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            this.loaderExecutor.execute(() -> this.load(id, loading));
+        }
+        catch (RejectedExecutionException e) {
+            this.loadings.remove(id, loading);
+            loading.completeExceptionally(e);
+        }
+        return loading;
+    }
+
+    /**
+     * Retourne un personnage uniquement s'il est résident en mémoire (aucun chargement)
+     * @param id Identifiant du personnage
+     * @return
+     */
+    public synchronized Option<TdlCharacter> getIfPresent(@NonNull Long id) {
+        Option<TdlCharacter> result = this.lookup(id);
+        if (result.isDefined()) {
+            this.hitCount.increment();
+        }
+        else {
+            this.missCount.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Ajoute ou remplace un personnage dans le cache. Le personnage est marqué comme modifié
+     * et sera écrit lors de la prochaine écriture différée.
+     * @param character Personnage
+     * @throws IllegalStateException Si le cache est fermé ou si l'écriture différée est saturée
+     */
+    public void put(@NonNull TdlCharacter character) {
+        this.checkOpen();
+        this.checkPendingCapacity();
+        synchronized (this) {
+            Long id = character.getId();
+            this.sketch.increment(id);
+            Node node = this.data.get(id);
+            if (node != null) {
+                int weight = this.weigher.apply(character);
+                this.addRegionWeight(node.region, weight - node.weight);
+                node.value = character;
+                node.weight = weight;
+                this.onAccess(node);
+            }
+            else {
+                this.insert(id, character);
+            }
+            this.dirtyKeys.add(id);
+            this.evictIfNeeded();
+        }
+    }
+
+    /**
+     * Marque un personnage résident comme modifié, pour qu'il soit écrit lors de la prochaine écriture différée
+     * @param id Identifiant du personnage
+     * @return Vrai si le personnage est résident, faux sinon
+     * @throws IllegalStateException Si l'écriture différée est saturée
+     */
+    public boolean markDirty(@NonNull Long id) {
+        this.checkPendingCapacity();
+        synchronized (this) {
+            boolean result = this.data.containsKey(id);
+            if (result) {
+                this.dirtyKeys.add(id);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Retire un personnage de la mémoire. S'il a été modifié, il reste en attente d'écriture.
+     * @param id Identifiant du personnage
+     */
+    public synchronized void invalidate(@NonNull Long id) {
+        Node node = this.data.get(id);
+        if (node != null) {
+            this.remove(node);
+        }
+    }
+
+    /**
+     * Ecrit dans le stockage, par lots, tous les personnages modifiés. Les lots en échec restent en attente
+     * et seront retentés lors de la prochaine écriture.
+     */
+    public void flush() {
+        synchronized (this.flushLock) {
+            synchronized (this) {
+                this.dirtyKeys.forEach(id -> this.addPendingWrite(id, this.data.get(id).value));
+                this.dirtyKeys.clear();
+            }
+            List.ofAll(this.pendingWrites.entrySet())
+                    .map(e -> Tuple.of(e.getKey(), e.getValue()))
+                    .grouped(this.writeBehindBatchSize)
+                    .forEach(this::write);
+        }
+    }
+
+    /**
+     * Retourne une photographie des statistiques du cache
+     * @return
+     */
+    public synchronized TdlCacheStats getStats() {
+        return TdlCacheStats.builder()
+                .hitCount(this.hitCount.sum())
+                .missCount(this.missCount.sum())
+                .loadSuccessCount(this.loadSuccessCount.sum())
+                .loadFailureCount(this.loadFailureCount.sum())
+                .totalLoadTimeNanos(this.totalLoadTimeNanos.sum())
+                .evictionCount(this.evictionCount.sum())
+                .evictionWeight(this.evictionWeight.sum())
+                .writeCount(this.writeCount.sum())
+                .writeFailureCount(this.writeFailureCount.sum())
+                .size(this.data.size())
+                .weight(this.windowWeight + this.probationWeight + this.protectedWeight)
+                .pendingWriteCount(this.pendingWrites.size() + this.dirtyKeys.size())
+                .pendingWriteWeight(this.pendingWeight.get())
+                .build();
+    }
+
+    /**
+     * Ferme le cache : arrête l'écriture différée après une dernière écriture complète
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.flush();
+        if (this.ownedLoaderExecutor != null) {
+            this.ownedLoaderExecutor.shutdown();
+        }
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Vérifie que le cache est ouvert
+     */
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException(ERR_CACHE_CLOSED);
+        }
+    }
+
+    /**
+     * Vérifie que le poids en attente d'écriture permet une nouvelle modification ; au-delà de la limite,
+     * une écriture synchrone est d'abord tentée
+     */
+    private void checkPendingCapacity() {
+        if (this.pendingWeight.get() >= this.maximumPendingWeight) {
+            this.flush();
+            long weight = this.pendingWeight.get();
+            if (weight >= this.maximumPendingWeight) {
+                throw new IllegalStateException(MessageFormat.format(ERR_CACHE_BACKLOG, weight, this.maximumPendingWeight));
+            }
+        }
+    }
+
+    /**
+     * Ajoute ou remplace un personnage en attente d'écriture (une copie de l'instance fournie)
+     * @param id Identifiant du personnage
+     * @param character Personnage
+     */
+    private void addPendingWrite(Long id, TdlCharacter character) {
+        TdlCharacter copy = this.copier.apply(character);
+        TdlCharacter previous = this.pendingWrites.put(id, copy);
+        this.pendingWeight.addAndGet(this.weigher.apply(copy) - (previous != null ? this.weigher.apply(previous) : 0));
+    }
+
+    /**
+     * Charge un personnage depuis le stockage (exécuté par l'exécuteur de chargement)
+     * @param id Identifiant du personnage
+     * @param loading Futur à compléter
+     */
+    private void load(Long id, CompletableFuture<Option<TdlCharacter>> loading) {
+        long start = System.nanoTime();
+        try {
+            Option<Option<TdlCharacter>> outcome;
+            do {
+                this.staleLoads.remove(id);
+                Option<TdlCharacter> loaded = this.store.load(id);
+                outcome = this.onLoaded(id, loaded);
+            } while (outcome.isEmpty());
+            Option<TdlCharacter> result = outcome.get();
+            this.loadSuccessCount.increment();
+            this.totalLoadTimeNanos.add(System.nanoTime() - start);
+            this.loadings.remove(id, loading);
+            loading.complete(result);
+        }
+        catch (RuntimeException e) {
+            this.loadFailureCount.increment();
+            this.totalLoadTimeNanos.add(System.nanoTime() - start);
+            this.loadings.remove(id, loading);
+            loading.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Intègre un personnage chargé dans le cache. Une version plus récente présente en mémoire
+     * (ajoutée ou en attente d'écriture pendant le chargement) est prioritaire. Si une écriture du
+     * personnage s'est terminée pendant le chargement, la version chargée peut être antérieure :
+     * elle est ignorée et le chargement doit être relancé.
+     * @param id Identifiant du personnage
+     * @param loaded Personnage chargé
+     * @return Le personnage (éventuellement vide), ou vide si le chargement doit être relancé
+     */
+    private synchronized Option<Option<TdlCharacter>> onLoaded(Long id, Option<TdlCharacter> loaded) {
+        Node node = this.data.get(id);
+        if (node != null) {
+            return Option.of(Option.of(node.value));
+        }
+        TdlCharacter pending = this.pendingWrites.get(id);
+        if (pending != null) {
+            TdlCharacter character = this.copier.apply(pending);
+            this.insert(id, character);
+            this.evictIfNeeded();
+            return Option.of(Option.of(character));
+        }
+        if (this.staleLoads.remove(id)) {
+            return Option.none();
+        }
+        loaded.forEach(character -> {
+            this.insert(id, character);
+            this.evictIfNeeded();
+        });
+        return Option.of(loaded);
+    }
+
+    /**
+     * Recherche un personnage en mémoire (cache ou attente d'écriture) et enregistre l'accès
+     * @param id Identifiant du personnage
+     * @return
+     */
+    private Option<TdlCharacter> lookup(Long id) {
+        this.sketch.increment(id);
+        Node node = this.data.get(id);
+        if (node != null) {
+            this.onAccess(node);
+            return Option.of(node.value);
+        }
+        TdlCharacter pending = this.pendingWrites.get(id);
+        if (pending != null) {
+            TdlCharacter character = this.copier.apply(pending);
+            this.insert(id, character);
+            this.evictIfNeeded();
+            return Option.of(character);
+        }
+        return Option.none();
+    }
+
+    /**
+     * Ecrit un lot de personnages dans le stockage
+     * @param batch Lot de couples (identifiant, personnage)
+     */
+    private void write(Seq<Tuple2<Long, TdlCharacter>> batch) {
+        try {
+            this.store.storeAll(batch.map(Tuple2::_2));
+            this.writeCount.add(batch.size());
+            batch.forEach(t -> {
+                // Le chargement en cours est signalé périmé avant que la version écrite ne quitte l'attente
+                if (this.loadings.containsKey(t._1())) {
+                    this.staleLoads.add(t._1());
+                }
+                if (this.pendingWrites.remove(t._1(), t._2())) {
+                    this.pendingWeight.addAndGet(-this.weigher.apply(t._2()));
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            this.writeFailureCount.add(batch.size());
+            log.warn("Echec de l'écriture différée de {} personnages", batch.size(), e);
+        }
+    }
+
+    /**
+     * Insère un nouveau personnage dans la fenêtre d'admission
+     * @param id Identifiant
+     * @param character Personnage
+     */
+    private void insert(Long id, TdlCharacter character) {
+        Node node = new Node(id, character, this.weigher.apply(character));
+        this.data.put(id, node);
+        this.window.add(node);
+        this.windowWeight += node.weight;
+    }
+
+    /**
+     * Met à jour la position d'un personnage suite à un accès
+     * @param node Noeud accédé
+     */
+    private void onAccess(Node node) {
+        switch (node.region) {
+            case WINDOW:
+                this.window.remove(node);
+                this.window.add(node);
+                break;
+            case PROBATION:
+                this.probation.remove(node);
+                this.probationWeight -= node.weight;
+                node.region = Region.PROTECTED;
+                this.protectedSegment.add(node);
+                this.protectedWeight += node.weight;
+                this.demoteProtected();
+                break;
+            default:
+                this.protectedSegment.remove(node);
+                this.protectedSegment.add(node);
+                break;
+        }
+    }
+
+    /**
+     * Rétrograde les personnages les plus anciens du segment protégé vers le segment probatoire
+     */
+    private void demoteProtected() {
+        Iterator<Node> it = this.protectedSegment.iterator();
+        while (this.protectedWeight > this.protectedMaxWeight && it.hasNext()) {
+            Node node = it.next();
+            it.remove();
+            this.protectedWeight -= node.weight;
+            node.region = Region.PROBATION;
+            this.probation.add(node);
+            this.probationWeight += node.weight;
+        }
+    }
+
+    /**
+     * Fait sortir de la fenêtre les personnages en excès, puis évince tant que le poids maximum est dépassé.
+     * Chaque candidat issu de la fenêtre est confronté à la victime du segment probatoire ; le moins fréquent est évincé.
+     */
+    private void evictIfNeeded() {
+        Deque<Node> candidates = new ArrayDeque<>();
+        Iterator<Node> it = this.window.iterator();
+        while (this.windowWeight > this.windowMaxWeight && it.hasNext()) {
+            Node node = it.next();
+            it.remove();
+            this.windowWeight -= node.weight;
+            node.region = Region.PROBATION;
+            this.probation.add(node);
+            this.probationWeight += node.weight;
+            candidates.add(node);
+        }
+        while (this.windowWeight + this.probationWeight + this.protectedWeight > this.maximumWeight) {
+            Node evicted;
+            if (this.probation.isEmpty()) {
+                evicted = this.protectedSegment.isEmpty() ? this.window.iterator().next() : this.protectedSegment.iterator().next();
+            }
+            else {
+                evicted = this.selectVictim(candidates);
+            }
+            this.remove(evicted);
+            this.evictionCount.increment();
+            this.evictionWeight.add(evicted.weight);
+        }
+    }
+
+    /**
+     * Désigne le personnage à évincer de la zone principale : la victime en tête du segment probatoire,
+     * sauf si le plus ancien candidat issu de la fenêtre est moins fréquent qu'elle
+     * @param candidates Candidats issus de la fenêtre
+     * @return
+     */
+    private Node selectVictim(Deque<Node> candidates) {
+        while (!candidates.isEmpty() && candidates.peekFirst().region != Region.PROBATION) {
+            candidates.pollFirst();
+        }
+        Node victim = this.probation.iterator().next();
+        Node candidate = candidates.peekFirst();
+        if (candidate == null || candidate == victim
+                || this.sketch.frequency(candidate.key) > this.sketch.frequency(victim.key)) {
+            return victim;
+        }
+        candidates.pollFirst();
+        return candidate;
+    }
+
+    /**
+     * Retire un noeud du cache ; s'il était modifié, il est conservé en attente d'écriture
+     * @param node Noeud
+     */
+    private void remove(Node node) {
+        this.data.remove(node.key);
+        switch (node.region) {
+            case WINDOW:
+                this.window.remove(node);
+                break;
+            case PROBATION:
+                this.probation.remove(node);
+                break;
+            default:
+                this.protectedSegment.remove(node);
+                break;
+        }
+        this.addRegionWeight(node.region, -node.weight);
+        if (this.dirtyKeys.remove(node.key)) {
+            this.addPendingWrite(node.key, node.value);
+        }
+    }
+
+    /**
+     * Ajoute un poids à une région
+     * @param region Région
+     * @param weight Poids (éventuellement négatif)
+     */
+    private void addRegionWeight(Region region, long weight) {
+        switch (region) {
+            case WINDOW:
+                this.windowWeight += weight;
+                break;
+            case PROBATION:
+                this.probationWeight += weight;
+                break;
+            default:
+                this.protectedWeight += weight;
+                break;
+        }
+    }
+
+    // ----------------------------------------------- Classes internes -------------------------------------------
+
+    /**
+     * <p>
+     *                  Régions du cache W-TinyLFU
+     * </p>
+     */
+    private enum Region {
+        WINDOW,
+        PROBATION,
+        PROTECTED
+    }
+
+    /**
+     * <p>
+     *                  Noeud du cache (identité utilisée dans les segments)
+     * </p>
+     */
+    private static class Node {
+
+        // Membres internes
+        private final Long                          key;
+        private TdlCharacter                        value;
+        private int                                 weight;
+        private Region                              region;
+
+        /**
+         * @param key
+         * @param value
+         * @param weight
+         */
+        Node(Long key, TdlCharacter value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.region = Region.WINDOW;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.cc.tdl.module.core.component.cache;
+
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.Function1;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.text.MessageFormat;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>
+ *                  Configuration du cache de personnages
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Data
+@Builder
+public class TdlCharacterCacheConfig {
+
+    // Constantes publiques
+    public static final String                          ERR_CACHE_COPY = "Impossible de copier le personnage {0}";
+
+    // Membres internes
+    /** Poids maximum des personnages résidents en mémoire */
+    @Builder.Default
+    private long                                        maximumWeight = 10_000L;
+    /** Fonction de calcul du poids d'un personnage */
+    @Builder.Default
+    private Function1<TdlCharacter, Integer>            weigher = character -> 1;
+    /** Nombre de personnages résidents attendu, pour dimensionner l'estimateur de fréquence
+     * (0 : déduit du poids maximum, soit un poids moyen de 1) */
+    @Builder.Default
+    private long                                        expectedEntries = 0L;
+    /** Part du poids réservée à la fenêtre d'admission (LRU) */
+    @Builder.Default
+    private double                                      windowRatio = 0.01;
+    /** Part de la zone principale réservée au segment protégé */
+    @Builder.Default
+    private double                                      protectedRatio = 0.8;
+    /** Poids maximum des personnages en attente d'écriture (0 : égal au poids maximum des résidents) */
+    @Builder.Default
+    private long                                        maximumPendingWeight = 0L;
+    /** Délai entre deux écritures différées, en millisecondes */
+    @Builder.Default
+    private long                                        writeBehindDelayMillis = 1_000L;
+    /** Nombre maximum de personnages écrits en un seul lot */
+    @Builder.Default
+    private int                                         writeBehindBatchSize = 256;
+    /** Nombre de threads de chargement si aucun exécuteur n'est fourni */
+    @Builder.Default
+    private int                                         loaderThreads = 2;
+    /** Exécuteur de chargement (optionnel, non arrêté par le cache) */
+    private Executor                                    loaderExecutor;
+    /** Fonction de copie d'un personnage confié à l'écriture différée (copie par sérialisation par défaut) */
+    @Builder.Default
+    private Function1<TdlCharacter, TdlCharacter>       copier = TdlCharacterCacheConfig::serialCopy;
+
+    // ------------------------------------------ Méthodes statiques publiques --------------------------------------
+    /**
+     * Copie profonde d'un personnage par sérialisation
+     * @param character Personnage
+     * @return
+     */
+    public static TdlCharacter serialCopy(TdlCharacter character) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(character);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(MessageFormat.format(ERR_CACHE_COPY, character.getId()), e);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+            return (TdlCharacter) in.readObject();
+        }
+        catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException(MessageFormat.format(ERR_CACHE_COPY, character.getId()), e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.cc.tdl.module.core.component.cache;
+
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+
+/**
+ * <p>
+ *                  Interface représentant le stockage local des personnages,
+ *                  utilisé par le cache pour le chargement et l'écriture différée
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public interface TdlCharacterStore {
+
+    /**
+     * Charge un personnage depuis le stockage
+     * @param id Identifiant du personnage
+     * @return Le personnage, ou vide s'il n'existe pas dans le stockage
+     */
+    Option<TdlCharacter> load(Long id);
+
+    /**
+     * Ecrit un lot de personnages dans le stockage
+     * @param characters Personnages à écrire
+     */
+    void storeAll(Seq<TdlCharacter> characters);
+}
@@ -0,0 +1,107 @@
+package com.cc.tdl.module.core.component.cache;
+
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.MessageFormat;
+
+/**
+ * <p>
+ *                  Stockage local des personnages basé sur des fichiers :
+ *                  un fichier sérialisé par personnage dans un répertoire.
+ *                  L'écriture passe par un fichier temporaire pour rester atomique.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public class TdlFileCharacterStore implements TdlCharacterStore {
+
+    // Constantes publiques
+    public static final String                      ERR_STORE_DIRECTORY = "Impossible de créer le répertoire de stockage {0}";
+    public static final String                      ERR_STORE_READ = "Impossible de lire le personnage {0} depuis {1}";
+    public static final String                      ERR_STORE_WRITE = "Impossible d''écrire le personnage {0} dans {1}";
+
+    // Constantes privées
+    private static final String                     FILE_EXTENSION = ".bin";
+    private static final String                     TEMP_EXTENSION = ".tmp";
+
+    // Membres internes
+    private final Path                              directory;
+
+    /**
+     * Constructeur
+     * @param directory Répertoire de stockage (créé s'il n'existe pas)
+     */
+    public TdlFileCharacterStore(@NonNull Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(MessageFormat.format(ERR_STORE_DIRECTORY, directory), e);
+        }
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    @Override
+    public Option<TdlCharacter> load(Long id) {
+        Path file = this.getFile(id);
+        if (!Files.exists(file)) {
+            return Option.none();
+        }
+        try (InputStream in = Files.newInputStream(file);
+             ObjectInputStream objectIn = new ObjectInputStream(in)) {
+            return Option.of((TdlCharacter) objectIn.readObject());
+        }
+        catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException(MessageFormat.format(ERR_STORE_READ, id, file), e);
+        }
+    }
+
+    @Override
+    public void storeAll(Seq<TdlCharacter> characters) {
+        characters.forEach(this::store);
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Ecrit un personnage dans son fichier
+     * @param character Personnage
+     */
+    private void store(TdlCharacter character) {
+        Path file = this.getFile(character.getId());
+        Path temp = this.directory.resolve(character.getId() + TEMP_EXTENSION);
+        try {
+            try (OutputStream out = Files.newOutputStream(temp);
+                 ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+                objectOut.writeObject(character);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(MessageFormat.format(ERR_STORE_WRITE, character.getId(), file), e);
+        }
+    }
+
+    /**
+     * Retourne le fichier associé à un personnage
+     * @param id Identifiant du personnage
+     * @return
+     */
+    private Path getFile(Long id) {
+        return this.directory.resolve(id + FILE_EXTENSION);
+    }
+}
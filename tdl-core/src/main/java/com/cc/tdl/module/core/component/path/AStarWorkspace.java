@@ -0,0 +1,229 @@
+package com.cc.tdl.module.core.component.path;
+
+import com.cc.tdl.module.core.data.TdlGridMap;
+import io.vavr.control.Option;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *                  Espace de travail réutilisable d'une recherche A* sur grille (8 directions,
+ *                  sans coupe des coins). Les ensembles ouvert et fermé sont des tableaux
+ *                  primitifs invalidés par numéro de génération, ce qui évite toute allocation
+ *                  et toute remise à zéro entre deux recherches.
+ *
+ *                  Un espace de travail n'est pas thread-safe : chaque thread de calcul a le sien.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+class AStarWorkspace {
+
+    // Constantes privées
+    private static final int                STRAIGHT_COST = 10;
+    private static final int                DIAGONAL_COST = 14;
+    private static final int[]              DX = { 1, -1, 0, 0, 1, 1, -1, -1 };
+    private static final int[]              DY = { 0, 0, 1, -1, 1, -1, 1, -1 };
+
+    // Membres internes
+    private int[]                           gScore = new int[0];
+    private int[]                           fScore = new int[0];
+    private int[]                           parent = new int[0];
+    private int[]                           openStamp = new int[0];
+    private int[]                           closedStamp = new int[0];
+    private int[]                           heap = new int[0];
+    private int[]                           heapPosition = new int[0];
+    private int                             heapSize;
+    private int                             generation;
+
+    // ----------------------------------------------- Méthodes ------------------------------------------------------
+
+    /**
+     * Recherche un itinéraire entre deux cases
+     * @param map Carte
+     * @param start Case de départ
+     * @param goal Case d'arrivée
+     * @param maxExpansions Nombre maximum de cases développées
+     * @return Les cases de l'itinéraire, départ et arrivée incluses, ou vide s'il n'existe pas
+     */
+    Option<int[]> search(TdlGridMap map, int start, int goal, int maxExpansions) {
+        if (!map.isWalkableCell(start) || !map.isWalkableCell(goal)) {
+            return Option.none();
+        }
+        if (start == goal) {
+            return Option.of(new int[] { start });
+        }
+        this.prepare(map.getCellCount());
+        int width = map.getWidth();
+        int goalX = goal % width;
+        int goalY = goal / width;
+        this.open(start, 0, -1, heuristic(start % width, start / width, goalX, goalY));
+        int expansions = 0;
+        while (this.heapSize > 0 && expansions++ < maxExpansions) {
+            int current = this.pop();
+            if (current == goal) {
+                return Option.of(this.reconstruct(goal));
+            }
+            this.closedStamp[current] = this.generation;
+            int cx = current % width;
+            int cy = current / width;
+            for (int d = 0; d < DX.length; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                boolean diagonal = DX[d] != 0 && DY[d] != 0;
+                if (!map.isWalkable(nx, ny) || (diagonal && (!map.isWalkable(nx, cy) || !map.isWalkable(cx, ny)))) {
+                    continue;
+                }
+                int neighbour = ny * width + nx;
+                if (this.closedStamp[neighbour] == this.generation) {
+                    continue;
+                }
+                int g = this.gScore[current] + (diagonal ? DIAGONAL_COST : STRAIGHT_COST);
+                if (this.openStamp[neighbour] != this.generation) {
+                    this.open(neighbour, g, current, g + heuristic(nx, ny, goalX, goalY));
+                }
+                else if (g < this.gScore[neighbour]) {
+                    this.gScore[neighbour] = g;
+                    this.parent[neighbour] = current;
+                    this.fScore[neighbour] = g + heuristic(nx, ny, goalX, goalY);
+                    this.siftUp(this.heapPosition[neighbour]);
+                }
+            }
+        }
+        return Option.none();
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Prépare l'espace de travail pour une nouvelle recherche
+     * @param cellCount Nombre de cases de la carte
+     */
+    private void prepare(int cellCount) {
+        if (this.gScore.length < cellCount) {
+            this.gScore = new int[cellCount];
+            this.fScore = new int[cellCount];
+            this.parent = new int[cellCount];
+            this.openStamp = new int[cellCount];
+            this.closedStamp = new int[cellCount];
+            this.heap = new int[cellCount];
+            this.heapPosition = new int[cellCount];
+            this.generation = 0;
+        }
+        if (this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.openStamp, 0);
+            Arrays.fill(this.closedStamp, 0);
+            this.generation = 0;
+        }
+        this.generation++;
+        this.heapSize = 0;
+    }
+
+    /**
+     * Ajoute une case à l'ensemble ouvert
+     * @param cell Case
+     * @param g Coût depuis le départ
+     * @param from Case précédente
+     * @param f Coût estimé total
+     */
+    private void open(int cell, int g, int from, int f) {
+        this.openStamp[cell] = this.generation;
+        this.gScore[cell] = g;
+        this.fScore[cell] = f;
+        this.parent[cell] = from;
+        this.heap[this.heapSize] = cell;
+        this.heapPosition[cell] = this.heapSize;
+        this.siftUp(this.heapSize++);
+    }
+
+    /**
+     * Retire la case de plus petit coût estimé de l'ensemble ouvert
+     * @return
+     */
+    private int pop() {
+        int result = this.heap[0];
+        this.heapSize--;
+        if (this.heapSize > 0) {
+            this.heap[0] = this.heap[this.heapSize];
+            this.heapPosition[this.heap[0]] = 0;
+            this.siftDown(0);
+        }
+        return result;
+    }
+
+    /**
+     * Remonte un élément du tas
+     * @param position Position de l'élément
+     */
+    private void siftUp(int position) {
+        int cell = this.heap[position];
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parentCell = this.heap[parentPosition];
+            if (this.fScore[parentCell] <= this.fScore[cell]) {
+                break;
+            }
+            this.heap[position] = parentCell;
+            this.heapPosition[parentCell] = position;
+            position = parentPosition;
+        }
+        this.heap[position] = cell;
+        this.heapPosition[cell] = position;
+    }
+
+    /**
+     * Descend un élément du tas
+     * @param position Position de l'élément
+     */
+    private void siftDown(int position) {
+        int cell = this.heap[position];
+        int half = this.heapSize >>> 1;
+        while (position < half) {
+            int child = (position << 1) + 1;
+            int right = child + 1;
+            if (right < this.heapSize && this.fScore[this.heap[right]] < this.fScore[this.heap[child]]) {
+                child = right;
+            }
+            if (this.fScore[cell] <= this.fScore[this.heap[child]]) {
+                break;
+            }
+            this.heap[position] = this.heap[child];
+            this.heapPosition[this.heap[child]] = position;
+            position = child;
+        }
+        this.heap[position] = cell;
+        this.heapPosition[cell] = position;
+    }
+
+    /**
+     * Reconstruit l'itinéraire à partir des cases précédentes
+     * @param goal Case d'arrivée
+     * @return
+     */
+    private int[] reconstruct(int goal) {
+        int length = 0;
+        for (int cell = goal; cell != -1; cell = this.parent[cell]) {
+            length++;
+        }
+        int[] result = new int[length];
+        for (int cell = goal, i = length - 1; cell != -1; cell = this.parent[cell], i--) {
+            result[i] = cell;
+        }
+        return result;
+    }
+
+    /**
+     * Heuristique octile (admissible pour des déplacements en 8 directions)
+     * @param x Abscisse de la case
+     * @param y Ordonnée de la case
+     * @param goalX Abscisse de l'arrivée
+     * @param goalY Ordonnée de l'arrivée
+     * @return
+     */
+    private static int heuristic(int x, int y, int goalX, int goalY) {
+        int dx = Math.abs(x - goalX);
+        int dy = Math.abs(y - goalY);
+        return STRAIGHT_COST * (dx + dy) + (DIAGONAL_COST - 2 * STRAIGHT_COST) * Math.min(dx, dy);
+    }
+}
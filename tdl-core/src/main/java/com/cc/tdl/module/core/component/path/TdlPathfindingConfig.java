@@ -0,0 +1,34 @@
+package com.cc.tdl.module.core.component.path;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * <p>
+ *                  Configuration du service de calcul d'itinéraires
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Data
+@Builder
+public class TdlPathfindingConfig {
+
+    // Membres internes
+    /** Nombre de threads de calcul */
+    @Builder.Default
+    private int                                         parallelism = Runtime.getRuntime().availableProcessors();
+    /** Nombre maximum d'itinéraires en cache */
+    @Builder.Default
+    private int                                         cacheCapacity = 1_024;
+    /** Nombre de demandes entre deux mêmes régions à partir duquel les itinéraires sont mis en cache */
+    @Builder.Default
+    private int                                         cacheAdmissionThreshold = 2;
+    /** Nombre maximum de cases développées par recherche */
+    @Builder.Default
+    private int                                         maxExpansions = Integer.MAX_VALUE;
+    /** Nombre de recalculs d'une demande dont le résultat est périmé avant sa livraison comme périmé */
+    @Builder.Default
+    private int                                         maxStaleRetries = 1;
+}
@@ -0,0 +1,459 @@
+package com.cc.tdl.module.core.component.path;
+
+import com.cc.tdl.module.core.data.TdlGridMap;
+import com.cc.tdl.module.core.data.TdlPath;
+import com.cc.tdl.module.core.data.TdlPathResult;
+import com.cc.tools.helper.ThreadsHelper;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ *                  Service de calcul d'itinéraires par lots.
+ *
+ *                  Les demandes soumises pendant un tour sont regroupées au tour suivant
+ *                  (les demandes identiques ne sont calculées qu'une fois) puis résolues par
+ *                  A* sur un pool de threads, chacun disposant de son propre espace de travail.
+ *                  Les résultats calculés sont livrés lors d'un tour ultérieur ; ceux trouvés
+ *                  dans le cache sont livrés dès le tour de prise en compte. Un résultat calculé
+ *                  sur une carte remplacée depuis, et dont le parcours (ou, à défaut d'itinéraire,
+ *                  la carte) a été modifié, est recalculé sur la carte courante ; au-delà du
+ *                  nombre de recalculs autorisé, il est livré marqué comme périmé.
+ *
+ *                  Les itinéraires entre régions fréquemment demandées sont mis en cache. Une
+ *                  entrée est invalidée dès qu'une des régions traversées par l'itinéraire est
+ *                  modifiée sur la carte. Les entrées sont indexées par couple exact de cases
+ *                  (départ, arrivée) : seules les demandes identiques en profitent, les demandes
+ *                  voisines entre les mêmes régions étant calculées séparément.
+ *
+ *                  Les méthodes {@link #tick()} et {@link #setMap(TdlGridMap)} doivent être appelées
+ *                  depuis le thread du tour ; {@link #submit(int, int, int, int)} peut l'être de n'importe où.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Slf4j
+public class TdlPathfindingService implements AutoCloseable {
+
+    // Membres internes
+    private final int                                           parallelism;
+    private final int                                           cacheCapacity;
+    private final int                                           cacheAdmissionThreshold;
+    private final int                                           maxExpansions;
+    private final int                                           maxStaleRetries;
+    private final ExecutorService                               workers;
+    private final ThreadLocal<AStarWorkspace>                   workspaces = ThreadLocal.withInitial(AStarWorkspace::new);
+    private final AtomicLong                                    ticketSequence = new AtomicLong();
+    private final Queue<Request>                                submitted = new ConcurrentLinkedQueue<>();
+    private final Queue<Solution>                               solved = new ConcurrentLinkedQueue<>();
+    private final LinkedHashMap<Long, CachedPath>               cache;
+    private final Map<Long, Integer>                            regionPairCounts = new HashMap<>();
+    private volatile TdlGridMap                                 map;
+
+    /**
+     * Constructeur
+     * @param map Carte initiale
+     * @param config Configuration du service
+     */
+    public TdlPathfindingService(@NonNull TdlGridMap map, @NonNull TdlPathfindingConfig config) {
+        this.map = map;
+        this.parallelism = Math.max(1, config.getParallelism());
+        this.cacheCapacity = Math.max(0, config.getCacheCapacity());
+        this.cacheAdmissionThreshold = Math.max(1, config.getCacheAdmissionThreshold());
+        this.maxExpansions = Math.max(1, config.getMaxExpansions());
+        this.maxStaleRetries = Math.max(0, config.getMaxStaleRetries());
+        this.workers = Executors.newFixedThreadPool(this.parallelism, ThreadsHelper.daemonThreadFactory("tdl-path-worker"));
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedPath> eldest) {
+                return this.size() > TdlPathfindingService.this.cacheCapacity;
+            }
+        };
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Soumet une demande d'itinéraire. Elle sera prise en compte au prochain tour.
+     * @param startX Abscisse de départ
+     * @param startY Ordonnée de départ
+     * @param goalX Abscisse d'arrivée
+     * @param goalY Ordonnée d'arrivée
+     * @return Le numéro de ticket qui identifiera le résultat
+     */
+    public long submit(int startX, int startY, int goalX, int goalY) {
+        long ticket = this.ticketSequence.incrementAndGet();
+        this.submitted.add(new Request(ticket, startX, startY, goalX, goalY));
+        return ticket;
+    }
+
+    /**
+     * Remplace la carte. Les itinéraires en cache traversant une région modifiée sont invalidés ;
+     * les calculs en cours se terminent sur l'ancienne carte.
+     * @param map Nouvelle carte
+     */
+    public void setMap(@NonNull TdlGridMap map) {
+        TdlGridMap previous = this.map;
+        this.map = map;
+        if (!previous.isSameLayout(map)) {
+            this.cache.clear();
+            this.regionPairCounts.clear();
+            return;
+        }
+        Iterator<CachedPath> it = this.cache.values().iterator();
+        while (it.hasNext()) {
+            if (!it.next().isValid(map)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Retourne la carte courante
+     * @return
+     */
+    public TdlGridMap getMap() {
+        return this.map;
+    }
+
+    /**
+     * Effectue un tour : livre les itinéraires calculés depuis le tour précédent, puis répartit
+     * les demandes soumises entre le cache et les threads de calcul
+     * @return Les résultats disponibles lors de ce tour
+     */
+    public Seq<TdlPathResult> tick() {
+        TdlGridMap current = this.map;
+        ArrayList<TdlPathResult> results = new ArrayList<>();
+        Solution solution;
+        while ((solution = this.solved.poll()) != null) {
+            this.deliver(current, solution, results);
+        }
+
+        Map<Long, ArrayList<Request>> pending = new LinkedHashMap<>();
+        Request request;
+        while ((request = this.submitted.poll()) != null) {
+            if (!current.isWalkable(request.startX, request.startY) || !current.isWalkable(request.goalX, request.goalY)) {
+                results.add(request.toResult(Option.none(), false, false));
+                continue;
+            }
+            int start = current.getCell(request.startX, request.startY);
+            int goal = current.getCell(request.goalX, request.goalY);
+            pending.computeIfAbsent(key(start, goal), k -> new ArrayList<>()).add(request);
+        }
+
+        ArrayList<Solution> misses = new ArrayList<>();
+        for (Map.Entry<Long, ArrayList<Request>> entry : pending.entrySet()) {
+            CachedPath cached = this.cache.get(entry.getKey());
+            if (cached != null && cached.isValid(current)) {
+                entry.getValue().forEach(r -> results.add(r.toResult(Option.of(cached.path), true, false)));
+            }
+            else {
+                misses.add(new Solution(entry.getKey(), current, entry.getValue()));
+            }
+        }
+        this.dispatch(misses);
+        return List.ofAll(results);
+    }
+
+    /**
+     * Arrête les threads de calcul
+     */
+    @Override
+    public void close() {
+        this.workers.shutdown();
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Répartit les recherches en autant de lots que de threads de calcul
+     * @param misses Recherches à effectuer
+     */
+    private void dispatch(ArrayList<Solution> misses) {
+        if (misses.isEmpty()) {
+            return;
+        }
+        int chunkSize = (misses.size() + this.parallelism - 1) / this.parallelism;
+        for (int from = 0; from < misses.size(); from += chunkSize) {
+            ArrayList<Solution> chunk = new ArrayList<>(misses.subList(from, Math.min(misses.size(), from + chunkSize)));
+            this.workers.execute(() -> chunk.forEach(this::solve));
+        }
+    }
+
+    /**
+     * Calcule un itinéraire (exécuté par un thread de calcul)
+     * @param solution Recherche à effectuer
+     */
+    private void solve(Solution solution) {
+        try {
+            int start = (int) (solution.key >>> 32);
+            int goal = (int) solution.key;
+            solution.cells = this.workspaces.get().search(solution.map, start, goal, this.maxExpansions);
+        }
+        catch (RuntimeException e) {
+            log.warn("Echec du calcul d'itinéraire", e);
+            solution.cells = Option.none();
+        }
+        this.solved.add(solution);
+    }
+
+    /**
+     * Livre un itinéraire calculé à toutes les demandes correspondantes et l'admet éventuellement dans le cache.
+     * Si le résultat est périmé, les demandes sont resoumises (prises en compte dans ce même tour) tant que
+     * leur nombre de recalculs le permet, et livrées marquées comme périmées sinon.
+     * @param current Carte courante
+     * @param solution Recherche effectuée
+     * @param results Résultats du tour
+     */
+    private void deliver(TdlGridMap current, Solution solution, ArrayList<TdlPathResult> results) {
+        Option<TdlPath> path = solution.cells.map(cells -> new TdlPath(cells, solution.map.getWidth()));
+        if (!this.isUpToDate(solution, current)) {
+            solution.requests.forEach(r -> {
+                if (r.attempts < this.maxStaleRetries) {
+                    this.submitted.add(r.retry());
+                }
+                else {
+                    results.add(r.toResult(path, false, true));
+                }
+            });
+            return;
+        }
+        solution.requests.forEach(r -> results.add(r.toResult(path, false, false)));
+        if (path.isDefined() && this.cacheCapacity > 0 && this.isFrequent(solution)) {
+            this.cache.put(solution.key, new CachedPath(path.get(), solution.cells.get(), solution.map));
+        }
+    }
+
+    /**
+     * Indique si le résultat d'une recherche est toujours valable sur la carte courante : carte inchangée,
+     * ou régions traversées inchangées (toutes les régions si aucun itinéraire n'a été trouvé)
+     * @param solution Recherche effectuée
+     * @param current Carte courante
+     * @return
+     */
+    private boolean isUpToDate(Solution solution, TdlGridMap current) {
+        if (solution.map == current) {
+            return true;
+        }
+        if (!solution.map.isSameLayout(current)) {
+            return false;
+        }
+        if (solution.cells.isDefined()) {
+            return new CachedPath(null, solution.cells.get(), solution.map).isValid(current);
+        }
+        for (int region = 0; region < current.getRegionCount(); region++) {
+            if (solution.map.getRegionVersion(region) != current.getRegionVersion(region)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Comptabilise une demande entre deux régions et indique si ces régions sont assez fréquemment reliées
+     * pour justifier la mise en cache
+     * @param solution Recherche effectuée
+     * @return
+     */
+    private boolean isFrequent(Solution solution) {
+        if (this.regionPairCounts.size() > 4 * this.cacheCapacity) {
+            this.regionPairCounts.clear();
+        }
+        long pair = key(solution.map.getRegion((int) (solution.key >>> 32)), solution.map.getRegion((int) solution.key));
+        return this.regionPairCounts.merge(pair, solution.requests.size(), Integer::sum) >= this.cacheAdmissionThreshold;
+    }
+
+    /**
+     * Construit une clé à partir de deux entiers
+     * @param high Partie haute
+     * @param low Partie basse
+     * @return
+     */
+    private static long key(int high, int low) {
+        return ((long) high << 32) | (low & 0xffffffffL);
+    }
+
+    // ----------------------------------------------- Classes internes -------------------------------------------
+
+    /**
+     * <p>
+     *                  Demande d'itinéraire soumise
+     * </p>
+     */
+    private static class Request {
+
+        // Membres internes
+        private final long                          ticket;
+        private final int                           startX;
+        private final int                           startY;
+        private final int                           goalX;
+        private final int                           goalY;
+        private final int                           attempts;
+
+        /**
+         * @param ticket
+         * @param startX
+         * @param startY
+         * @param goalX
+         * @param goalY
+         */
+        Request(long ticket, int startX, int startY, int goalX, int goalY) {
+            this(ticket, startX, startY, goalX, goalY, 0);
+        }
+
+        /**
+         * @param ticket
+         * @param startX
+         * @param startY
+         * @param goalX
+         * @param goalY
+         * @param attempts
+         */
+        private Request(long ticket, int startX, int startY, int goalX, int goalY, int attempts) {
+            this.ticket = ticket;
+            this.startX = startX;
+            this.startY = startY;
+            this.goalX = goalX;
+            this.goalY = goalY;
+            this.attempts = attempts;
+        }
+
+        /**
+         * Retourne la même demande, pour un nouveau calcul
+         * @return
+         */
+        Request retry() {
+            return new Request(this.ticket, this.startX, this.startY, this.goalX, this.goalY, this.attempts + 1);
+        }
+
+        /**
+         * Construit le résultat de la demande
+         * @param path Itinéraire
+         * @param fromCache Indique si l'itinéraire provient du cache
+         * @param stale Indique si l'itinéraire a été calculé sur une carte modifiée depuis
+         * @return
+         */
+        TdlPathResult toResult(Option<TdlPath> path, boolean fromCache, boolean stale) {
+            return TdlPathResult.builder()
+                    .ticket(this.ticket)
+                    .startX(this.startX)
+                    .startY(this.startY)
+                    .goalX(this.goalX)
+                    .goalY(this.goalY)
+                    .path(path)
+                    .fromCache(fromCache)
+                    .stale(stale)
+                    .build();
+        }
+    }
+
+    /**
+     * <p>
+     *                  Recherche à effectuer pour un couple (départ, arrivée) et les demandes associées
+     * </p>
+     */
+    private static class Solution {
+
+        // Membres internes
+        private final long                          key;
+        private final TdlGridMap                    map;
+        private final ArrayList<Request>            requests;
+        private Option<int[]>                       cells;
+
+        /**
+         * @param key
+         * @param map
+         * @param requests
+         */
+        Solution(long key, TdlGridMap map, ArrayList<Request> requests) {
+            this.key = key;
+            this.map = map;
+            this.requests = requests;
+        }
+    }
+
+    /**
+     * <p>
+     *                  Itinéraire en cache, avec la version des régions traversées lors du calcul.
+     *                  Les régions traversées incluent celles des deux cases de coin de chaque pas
+     *                  en diagonale : leur franchissabilité conditionne le pas (pas de coupe des coins).
+     * </p>
+     */
+    private static class CachedPath {
+
+        // Membres internes
+        private final TdlPath                       path;
+        private final int[]                         regions;
+        private final long[]                        versions;
+
+        /**
+         * @param path
+         * @param cells
+         * @param map
+         */
+        CachedPath(TdlPath path, int[] cells, TdlGridMap map) {
+            this.path = path;
+            this.regions = regionsOf(cells, map);
+            this.versions = new long[this.regions.length];
+            for (int i = 0; i < this.regions.length; i++) {
+                this.versions[i] = map.getRegionVersion(this.regions[i]);
+            }
+        }
+
+        /**
+         * Retourne les régions dont dépend un itinéraire : celles de ses cases et celles des cases de coin
+         * de ses pas en diagonale
+         * @param cells Cases de l'itinéraire
+         * @param map Carte
+         * @return
+         */
+        private static int[] regionsOf(int[] cells, TdlGridMap map) {
+            int width = map.getWidth();
+            IntStream.Builder result = IntStream.builder();
+            for (int i = 0; i < cells.length; i++) {
+                result.add(map.getRegion(cells[i]));
+                if (i > 0) {
+                    int px = cells[i - 1] % width;
+                    int py = cells[i - 1] / width;
+                    int cx = cells[i] % width;
+                    int cy = cells[i] / width;
+                    if (px != cx && py != cy) {
+                        result.add(map.getRegion(py * width + cx));
+                        result.add(map.getRegion(cy * width + px));
+                    }
+                }
+            }
+            return result.build().distinct().toArray();
+        }
+
+        /**
+         * Indique si aucune des régions traversées n'a été modifiée sur une carte
+         * @param map Carte
+         * @return
+         */
+        boolean isValid(TdlGridMap map) {
+            for (int i = 0; i < this.regions.length; i++) {
+                if (map.getRegionVersion(this.regions[i]) != this.versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
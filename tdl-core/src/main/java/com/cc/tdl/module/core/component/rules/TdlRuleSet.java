@@ -0,0 +1,360 @@
+package com.cc.tdl.module.core.component.rules;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.NonNull;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * <p>
+ *                  Ensemble de règles de calcul des statistiques des personnages.
+ *
+ *                  Les statistiques de base (caractéristiques, bonus, modificateurs) sont des
+ *                  valeurs saisies ; les statistiques dérivées sont calculées par une formule à
+ *                  partir d'autres statistiques. L'ensemble forme un graphe de dépendances sans
+ *                  cycle, dont l'ordre topologique et les dépendants transitifs de chaque
+ *                  statistique sont précalculés à la construction.
+ *
+ *                  Un ensemble de règles est immuable et partagé par tous les personnages.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public class TdlRuleSet {
+
+    // Constantes publiques
+    public static final String                      ERR_RULE_DUPLICATE = "La statistique {0} est déjà définie";
+    public static final String                      ERR_RULE_UNKNOWN = "La statistique {0} n''est pas définie";
+    public static final String                      ERR_RULE_CYCLE = "Dépendance circulaire sur la statistique {0}";
+    public static final String                      ERR_RULE_NOT_BASE = "La statistique {0} est dérivée : sa valeur ne peut pas être saisie";
+    public static final String                      ERR_RULE_ARITY = "La formule de la statistique {0} attend {1} dépendances, {2} fournies";
+
+    // Membres internes
+    private final String[]                          names;
+    private final Map<String, Integer>              indexes;
+    private final double[]                          defaults;
+    private final TdlStatFormula[]                  formulas;
+    private final int[][]                           dependencies;
+    private final int[][]                           dependents;
+    private final int[][]                           prerequisites;
+    private final int[]                             derivedOrder;
+
+    /**
+     * Constructeur (voir {@link #builder()})
+     * @param definitions Définitions des statistiques, dans leur ordre de déclaration
+     */
+    private TdlRuleSet(ArrayList<Definition> definitions) {
+        int count = definitions.size();
+        this.names = new String[count];
+        this.defaults = new double[count];
+        this.formulas = new TdlStatFormula[count];
+        this.dependencies = new int[count][];
+        Map<String, Integer> index = HashMap.empty();
+        for (int i = 0; i < count; i++) {
+            this.names[i] = definitions.get(i).name;
+            index = index.put(this.names[i], i);
+        }
+        this.indexes = index;
+        for (int i = 0; i < count; i++) {
+            Definition definition = definitions.get(i);
+            this.defaults[i] = definition.defaultValue;
+            this.formulas[i] = definition.formula;
+            this.dependencies[i] = definition.dependencies.map(this::indexOf).toJavaStream().mapToInt(Integer::intValue).toArray();
+        }
+        int[] order = this.sortTopologically();
+        this.derivedOrder = Arrays.stream(order).filter(s -> this.formulas[s] != null).toArray();
+        this.dependents = new int[count][];
+        this.prerequisites = new int[count][];
+        for (int i = 0; i < count; i++) {
+            int stat = i;
+            boolean[] downstream = new boolean[count];
+            boolean[] upstream = new boolean[count];
+            this.mark(stat, downstream, true);
+            this.mark(stat, upstream, false);
+            // Dépendants transitifs et prérequis dérivés, dans l'ordre topologique
+            this.dependents[stat] = Arrays.stream(order).filter(d -> d != stat && downstream[d]).toArray();
+            this.prerequisites[stat] = Arrays.stream(this.derivedOrder).filter(d -> upstream[d]).toArray();
+        }
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Retourne un constructeur d'ensemble de règles
+     * @return
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Retourne l'index d'une statistique
+     * @param name Nom de la statistique
+     * @return
+     */
+    public int indexOf(@NonNull String name) {
+        return this.find(name).getOrElseThrow(() -> new IllegalArgumentException(MessageFormat.format(ERR_RULE_UNKNOWN, name)));
+    }
+
+    /**
+     * Recherche l'index d'une statistique
+     * @param name Nom de la statistique
+     * @return L'index, ou vide si la statistique n'est pas définie
+     */
+    public Option<Integer> find(@NonNull String name) {
+        return this.indexes.get(name);
+    }
+
+    /**
+     * Retourne le nom d'une statistique
+     * @param stat Index de la statistique
+     * @return
+     */
+    public String getName(int stat) {
+        return this.names[stat];
+    }
+
+    /**
+     * Retourne le nombre de statistiques
+     * @return
+     */
+    public int size() {
+        return this.names.length;
+    }
+
+    /**
+     * Indique si une statistique est dérivée
+     * @param stat Index de la statistique
+     * @return
+     */
+    public boolean isDerived(int stat) {
+        return this.formulas[stat] != null;
+    }
+
+    // ----------------------------------------------- Méthodes du package ------------------------------------------
+
+    /**
+     * Retourne la valeur initiale d'une statistique de base
+     * @param stat Index de la statistique
+     * @return
+     */
+    double getDefault(int stat) {
+        return this.defaults[stat];
+    }
+
+    /**
+     * Retourne la formule d'une statistique dérivée
+     * @param stat Index de la statistique
+     * @return
+     */
+    TdlStatFormula getFormula(int stat) {
+        return this.formulas[stat];
+    }
+
+    /**
+     * Retourne les dépendances directes d'une statistique
+     * @param stat Index de la statistique
+     * @return
+     */
+    int[] getDependencies(int stat) {
+        return this.dependencies[stat];
+    }
+
+    /**
+     * Retourne les dépendants transitifs d'une statistique, dans l'ordre topologique
+     * @param stat Index de la statistique
+     * @return
+     */
+    int[] getDependents(int stat) {
+        return this.dependents[stat];
+    }
+
+    /**
+     * Retourne les statistiques dérivées à calculer pour obtenir une statistique (elle-même incluse si dérivée),
+     * dans l'ordre topologique
+     * @param stat Index de la statistique
+     * @return
+     */
+    int[] getPrerequisites(int stat) {
+        return this.prerequisites[stat];
+    }
+
+    /**
+     * Retourne toutes les statistiques dérivées, dans l'ordre topologique
+     * @return
+     */
+    int[] getDerivedOrder() {
+        return this.derivedOrder;
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Trie les statistiques dans l'ordre topologique (dépendances d'abord) et détecte les cycles
+     * @return
+     */
+    private int[] sortTopologically() {
+        int count = this.names.length;
+        int[] state = new int[count];
+        int[] result = new int[count];
+        int[] position = { 0 };
+        for (int s = 0; s < count; s++) {
+            this.visit(s, state, result, position);
+        }
+        return result;
+    }
+
+    /**
+     * Parcours en profondeur du tri topologique
+     * @param stat Statistique visitée
+     * @param state Etat de visite (0 : non visitée, 1 : en cours, 2 : terminée)
+     * @param result Ordre topologique
+     * @param position Position courante dans le résultat
+     */
+    private void visit(int stat, int[] state, int[] result, int[] position) {
+        if (state[stat] == 2) {
+            return;
+        }
+        if (state[stat] == 1) {
+            throw new IllegalArgumentException(MessageFormat.format(ERR_RULE_CYCLE, this.names[stat]));
+        }
+        state[stat] = 1;
+        for (int dependency : this.dependencies[stat]) {
+            this.visit(dependency, state, result, position);
+        }
+        state[stat] = 2;
+        result[position[0]++] = stat;
+    }
+
+    /**
+     * Marque une statistique et ses dépendants (ou ses dépendances) transitifs
+     * @param stat Statistique
+     * @param marked Marques
+     * @param downstream Vrai pour les dépendants, faux pour les dépendances
+     */
+    private void mark(int stat, boolean[] marked, boolean downstream) {
+        if (marked[stat]) {
+            return;
+        }
+        marked[stat] = true;
+        if (downstream) {
+            for (int s = 0; s < this.names.length; s++) {
+                for (int dependency : this.dependencies[s]) {
+                    if (dependency == stat) {
+                        this.mark(s, marked, true);
+                    }
+                }
+            }
+        }
+        else {
+            for (int dependency : this.dependencies[stat]) {
+                this.mark(dependency, marked, false);
+            }
+        }
+    }
+
+    // ----------------------------------------------- Classes internes -------------------------------------------
+
+    /**
+     * <p>
+     *                  Définition d'une statistique
+     * </p>
+     */
+    private static class Definition {
+
+        // Membres internes
+        private final String                        name;
+        private final double                        defaultValue;
+        private final TdlStatFormula                formula;
+        private final Seq<String>                   dependencies;
+
+        /**
+         * @param name
+         * @param defaultValue
+         * @param formula
+         * @param dependencies
+         */
+        Definition(String name, double defaultValue, TdlStatFormula formula, Seq<String> dependencies) {
+            this.name = name;
+            this.defaultValue = defaultValue;
+            this.formula = formula;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * <p>
+     *                  Constructeur d'ensemble de règles
+     * </p>
+     */
+    public static class Builder {
+
+        // Membres internes
+        private final ArrayList<Definition>         definitions = new ArrayList<>();
+
+        /**
+         * Constructeur interne
+         */
+        private Builder() {
+
+        }
+
+        /**
+         * Déclare une statistique de base
+         * @param name Nom
+         * @param defaultValue Valeur initiale
+         * @return
+         */
+        public Builder base(@NonNull String name, double defaultValue) {
+            return this.add(new Definition(name, defaultValue, null, List.empty()));
+        }
+
+        /**
+         * Déclare une statistique dérivée
+         * @param name Nom
+         * @param formula Formule, appliquée aux dépendances dans l'ordre de déclaration
+         * @param dependencies Noms des statistiques dont dépend la formule (autant que la formule en attend)
+         * @return
+         */
+        public Builder derived(@NonNull String name, @NonNull TdlStatFormula formula, @NonNull String... dependencies) {
+            if (formula.getArity() >= 0 && formula.getArity() != dependencies.length) {
+                throw new IllegalArgumentException(MessageFormat.format(ERR_RULE_ARITY, name, formula.getArity(), dependencies.length));
+            }
+            return this.add(new Definition(name, 0.0, formula, List.of(dependencies)));
+        }
+
+        /**
+         * Construit l'ensemble de règles, après contrôle des dépendances
+         * @return
+         */
+        public TdlRuleSet build() {
+            Seq<String> names = List.ofAll(this.definitions).map(d -> d.name);
+            this.definitions.forEach(d -> d.dependencies
+                    .find(dependency -> !names.contains(dependency))
+                    .forEach(dependency -> {
+                        throw new IllegalArgumentException(MessageFormat.format(ERR_RULE_UNKNOWN, dependency));
+                    }));
+            return new TdlRuleSet(new ArrayList<>(this.definitions));
+        }
+
+        /**
+         * Ajoute une définition
+         * @param definition Définition
+         * @return
+         */
+        private Builder add(Definition definition) {
+            if (this.definitions.stream().anyMatch(d -> d.name.equals(definition.name))) {
+                throw new IllegalArgumentException(MessageFormat.format(ERR_RULE_DUPLICATE, definition.name));
+            }
+            this.definitions.add(definition);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.cc.tdl.module.core.component.rules;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *                  Interface représentant la formule de calcul d'une statistique dérivée,
+ *                  à partir des valeurs de ses dépendances (dans leur ordre de déclaration).
+ *
+ *                  Le calcul d'une formule pour tous les personnages à la fois travaille sur des
+ *                  colonnes de tableaux primitifs ; les formules fournies ici l'implémentent par des
+ *                  boucles simples sur ces colonnes, que le compilateur JIT peut vectoriser.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@FunctionalInterface
+public interface TdlStatFormula {
+
+    /**
+     * Calcule la valeur pour un personnage
+     * @param inputs Valeurs des dépendances
+     * @return
+     */
+    double compute(double[] inputs);
+
+    /**
+     * Retourne le nombre de dépendances attendu par la formule
+     * @return Le nombre de dépendances, ou -1 si la formule en accepte un nombre quelconque
+     */
+    default int getArity() {
+        return -1;
+    }
+
+    /**
+     * Calcule la valeur pour un ensemble de personnages. L'implémentation par défaut
+     * appelle {@link #compute(double[])} pour chaque personnage.
+     * @param inputs Colonnes des valeurs des dépendances (une colonne par dépendance)
+     * @param output Colonne résultat
+     * @param count Nombre de personnages à calculer
+     */
+    default void computeAll(double[][] inputs, double[] output, int count) {
+        double[] buffer = new double[inputs.length];
+        for (int i = 0; i < count; i++) {
+            for (int d = 0; d < inputs.length; d++) {
+                buffer[d] = inputs[d][i];
+            }
+            output[i] = this.compute(buffer);
+        }
+    }
+
+    // ------------------------------------------ Méthodes statiques publiques --------------------------------------
+    /**
+     * Retourne une formule faisant la somme des dépendances
+     * @return
+     */
+    static TdlStatFormula sum() {
+        return new TdlStatFormula() {
+            @Override
+            public double compute(double[] inputs) {
+                double result = 0;
+                for (double input : inputs) {
+                    result += input;
+                }
+                return result;
+            }
+
+            @Override
+            public void computeAll(double[][] inputs, double[] output, int count) {
+                Arrays.fill(output, 0, count, 0.0);
+                for (double[] column : inputs) {
+                    for (int i = 0; i < count; i++) {
+                        output[i] += column[i];
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Retourne une formule faisant le produit des dépendances
+     * @return
+     */
+    static TdlStatFormula product() {
+        return new TdlStatFormula() {
+            @Override
+            public double compute(double[] inputs) {
+                double result = 1;
+                for (double input : inputs) {
+                    result *= input;
+                }
+                return result;
+            }
+
+            @Override
+            public void computeAll(double[][] inputs, double[] output, int count) {
+                Arrays.fill(output, 0, count, 1.0);
+                for (double[] column : inputs) {
+                    for (int i = 0; i < count; i++) {
+                        output[i] *= column[i];
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Retourne une formule faisant la somme pondérée des dépendances
+     * @param weights Poids de chaque dépendance, dans l'ordre de déclaration
+     * @return
+     */
+    static TdlStatFormula weighted(@NonNull double... weights) {
+        double[] coefficients = weights.clone();
+        return new TdlStatFormula() {
+            @Override
+            public int getArity() {
+                return coefficients.length;
+            }
+
+            @Override
+            public double compute(double[] inputs) {
+                double result = 0;
+                for (int d = 0; d < inputs.length; d++) {
+                    result += coefficients[d] * inputs[d];
+                }
+                return result;
+            }
+
+            @Override
+            public void computeAll(double[][] inputs, double[] output, int count) {
+                Arrays.fill(output, 0, count, 0.0);
+                for (int d = 0; d < inputs.length; d++) {
+                    double coefficient = coefficients[d];
+                    double[] column = inputs[d];
+                    for (int i = 0; i < count; i++) {
+                        output[i] += coefficient * column[i];
+                    }
+                }
+            }
+        };
+    }
+}
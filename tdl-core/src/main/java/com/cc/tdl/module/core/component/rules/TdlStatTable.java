@@ -0,0 +1,208 @@
+package com.cc.tdl.module.core.component.rules;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+/**
+ * <p>
+ *                  Table des statistiques de tous les personnages soumis à un même ensemble de règles.
+ *
+ *                  Les valeurs sont stockées par colonnes (un tableau primitif par statistique,
+ *                  indexé par emplacement de personnage). La modification d'une statistique de base
+ *                  ne marque comme périmées que ses dépendantes, pour ce seul personnage ; elles sont
+ *                  recalculées à la lecture. Le recalcul d'une règle pour tous les personnages à la
+ *                  fois applique la formule colonne par colonne.
+ *
+ *                  Une table n'est pas thread-safe : elle appartient au thread du moteur. Même une
+ *                  lecture peut la modifier (recalcul d'une statistique périmée). Le moteur appelle
+ *                  donc {@link #recomputeAll()} au début de chaque tour, avant ses sous-systèmes :
+ *                  tant qu'aucune statistique n'est modifiée, les lectures ne modifient plus la
+ *                  table et peuvent être concurrentes (évaluation parallèle des comportements par
+ *                  exemple). Un sous-système qui modifie des statistiques avant une lecture
+ *                  parallèle doit rappeler {@link #recomputeAll()}.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public class TdlStatTable {
+
+    // Constantes privées
+    private static final int                    DEFAULT_CAPACITY = 64;
+
+    // Membres internes
+    @Getter
+    private final TdlRuleSet                    ruleSet;
+    private double[][]                          values;
+    private boolean[][]                         dirty;
+    private final int[]                         dirtyCounts;
+    private int[]                               freeSlots = new int[DEFAULT_CAPACITY];
+    private int                                 freeCount;
+    private int                                 capacity = DEFAULT_CAPACITY;
+    private int                                 size;
+
+    /**
+     * Constructeur
+     * @param ruleSet Ensemble de règles
+     */
+    public TdlStatTable(@NonNull TdlRuleSet ruleSet) {
+        this.ruleSet = ruleSet;
+        this.values = new double[ruleSet.size()][DEFAULT_CAPACITY];
+        this.dirty = new boolean[ruleSet.size()][DEFAULT_CAPACITY];
+        this.dirtyCounts = new int[ruleSet.size()];
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Alloue les statistiques d'un nouveau personnage : statistiques de base à leur valeur initiale,
+     * statistiques dérivées à calculer
+     * @return Les statistiques du personnage
+     */
+    public TdlStats allocate() {
+        int slot;
+        if (this.freeCount > 0) {
+            slot = this.freeSlots[--this.freeCount];
+        }
+        else {
+            if (this.size == this.capacity) {
+                this.grow();
+            }
+            slot = this.size++;
+        }
+        for (int stat = 0; stat < this.ruleSet.size(); stat++) {
+            if (this.ruleSet.isDerived(stat)) {
+                this.markDirty(stat, slot);
+            }
+            else {
+                this.values[stat][slot] = this.ruleSet.getDefault(stat);
+            }
+        }
+        return new TdlStats(this, slot);
+    }
+
+    /**
+     * Recalcule une statistique dérivée (et ses prérequis) pour tous les personnages à la fois.
+     * Seules les règles ayant au moins un personnage à recalculer sont évaluées.
+     * @param stat Index de la statistique
+     */
+    public void recomputeAll(int stat) {
+        for (int derived : this.ruleSet.getPrerequisites(stat)) {
+            if (this.dirtyCounts[derived] > 0) {
+                int[] dependencies = this.ruleSet.getDependencies(derived);
+                double[][] inputs = new double[dependencies.length][];
+                for (int d = 0; d < dependencies.length; d++) {
+                    inputs[d] = this.values[dependencies[d]];
+                }
+                this.ruleSet.getFormula(derived).computeAll(inputs, this.values[derived], this.size);
+                Arrays.fill(this.dirty[derived], 0, this.size, false);
+                this.dirtyCounts[derived] = 0;
+            }
+        }
+    }
+
+    /**
+     * Recalcule toutes les statistiques dérivées pour tous les personnages à la fois
+     */
+    public void recomputeAll() {
+        for (int derived : this.ruleSet.getDerivedOrder()) {
+            this.recomputeAll(derived);
+        }
+    }
+
+    /**
+     * Retourne le nombre d'emplacements utilisés (personnages alloués ou libérés réutilisables)
+     * @return
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // ----------------------------------------------- Méthodes du package ------------------------------------------
+
+    /**
+     * Retourne la valeur d'une statistique pour un personnage, recalculée si elle est périmée
+     * @param slot Emplacement du personnage
+     * @param stat Index de la statistique
+     * @return
+     */
+    double get(int slot, int stat) {
+        if (this.dirty[stat][slot]) {
+            this.recompute(slot, stat);
+        }
+        return this.values[stat][slot];
+    }
+
+    /**
+     * Modifie une statistique de base d'un personnage et marque ses dépendantes comme périmées
+     * @param slot Emplacement du personnage
+     * @param stat Index de la statistique
+     * @param value Nouvelle valeur
+     */
+    void setBase(int slot, int stat, double value) {
+        if (this.ruleSet.isDerived(stat)) {
+            throw new IllegalArgumentException(MessageFormat.format(TdlRuleSet.ERR_RULE_NOT_BASE, this.ruleSet.getName(stat)));
+        }
+        if (Double.compare(this.values[stat][slot], value) != 0) {
+            this.values[stat][slot] = value;
+            for (int dependent : this.ruleSet.getDependents(stat)) {
+                this.markDirty(dependent, slot);
+            }
+        }
+    }
+
+    /**
+     * Libère l'emplacement d'un personnage pour qu'il soit réutilisé
+     * @param slot Emplacement du personnage
+     */
+    void release(int slot) {
+        if (this.freeCount == this.freeSlots.length) {
+            this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeSlots.length * 2);
+        }
+        this.freeSlots[this.freeCount++] = slot;
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Recalcule une statistique dérivée périmée pour un personnage, après ses dépendances périmées
+     * @param slot Emplacement du personnage
+     * @param stat Index de la statistique
+     */
+    private void recompute(int slot, int stat) {
+        int[] dependencies = this.ruleSet.getDependencies(stat);
+        double[] inputs = new double[dependencies.length];
+        for (int d = 0; d < dependencies.length; d++) {
+            inputs[d] = this.get(slot, dependencies[d]);
+        }
+        this.values[stat][slot] = this.ruleSet.getFormula(stat).compute(inputs);
+        this.dirty[stat][slot] = false;
+        this.dirtyCounts[stat]--;
+    }
+
+    /**
+     * Marque une statistique dérivée comme périmée pour un personnage
+     * @param stat Index de la statistique
+     * @param slot Emplacement du personnage
+     */
+    private void markDirty(int stat, int slot) {
+        if (!this.dirty[stat][slot]) {
+            this.dirty[stat][slot] = true;
+            this.dirtyCounts[stat]++;
+        }
+    }
+
+    /**
+     * Double la capacité de la table
+     */
+    private void grow() {
+        this.capacity *= 2;
+        for (int stat = 0; stat < this.values.length; stat++) {
+            this.values[stat] = Arrays.copyOf(this.values[stat], this.capacity);
+            this.dirty[stat] = Arrays.copyOf(this.dirty[stat], this.capacity);
+        }
+    }
+}
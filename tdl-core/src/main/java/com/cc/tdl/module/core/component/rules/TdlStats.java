@@ -0,0 +1,132 @@
+package com.cc.tdl.module.core.component.rules;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.text.MessageFormat;
+
+/**
+ * <p>
+ *                  Statistiques d'un personnage : accès à son emplacement dans une
+ *                  {@link TdlStatTable}. Les statistiques dérivées sont recalculées
+ *                  à la lecture uniquement si une de leurs dépendances a changé.
+ *                  Comme la table, elles appartiennent au thread du moteur.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public class TdlStats {
+
+    // Constantes publiques
+    public static final String                  ERR_STATS_RELEASED = "Les statistiques de l''emplacement {0} ont été libérées";
+
+    // Membres internes
+    @Getter
+    private final TdlStatTable                  table;
+    @Getter
+    private final int                           slot;
+    private boolean                             released;
+
+    /**
+     * Constructeur (voir {@link TdlStatTable#allocate()})
+     * @param table Table des statistiques
+     * @param slot Emplacement du personnage
+     */
+    TdlStats(TdlStatTable table, int slot) {
+        this.table = table;
+        this.slot = slot;
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Retourne la valeur d'une statistique
+     * @param stat Index de la statistique (voir {@link TdlRuleSet#indexOf(String)})
+     * @return
+     * @throws IllegalStateException Si les statistiques ont été libérées
+     */
+    public double get(int stat) {
+        this.checkNotReleased();
+        return this.table.get(this.slot, stat);
+    }
+
+    /**
+     * Retourne la valeur d'une statistique
+     * @param name Nom de la statistique
+     * @return
+     */
+    public double get(@NonNull String name) {
+        return this.get(this.table.getRuleSet().indexOf(name));
+    }
+
+    /**
+     * Modifie une statistique de base
+     * @param stat Index de la statistique (voir {@link TdlRuleSet#indexOf(String)})
+     * @param value Nouvelle valeur
+     * @throws IllegalStateException Si les statistiques ont été libérées
+     */
+    public void set(int stat, double value) {
+        this.checkNotReleased();
+        this.table.setBase(this.slot, stat, value);
+    }
+
+    /**
+     * Modifie une statistique de base
+     * @param name Nom de la statistique
+     * @param value Nouvelle valeur
+     */
+    public void set(@NonNull String name, double value) {
+        this.set(this.table.getRuleSet().indexOf(name), value);
+    }
+
+    /**
+     * Retourne les valeurs des statistiques de base, par nom
+     * @return
+     */
+    public Map<String, Double> getBaseValues() {
+        TdlRuleSet ruleSet = this.table.getRuleSet();
+        Map<String, Double> result = HashMap.empty();
+        for (int stat = 0; stat < ruleSet.size(); stat++) {
+            if (!ruleSet.isDerived(stat)) {
+                result = result.put(ruleSet.getName(stat), this.get(stat));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Modifie des statistiques de base à partir de leur nom. Les noms inconnus de l'ensemble de règles
+     * (statistiques supprimées depuis l'enregistrement du personnage) et les statistiques dérivées sont ignorés.
+     * @param values Valeurs par nom
+     */
+    public void setBaseValues(@NonNull Map<String, Double> values) {
+        TdlRuleSet ruleSet = this.table.getRuleSet();
+        values.forEach((name, value) -> ruleSet.find(name)
+                .filter(stat -> !ruleSet.isDerived(stat))
+                .forEach(stat -> this.set(stat, value)));
+    }
+
+    /**
+     * Libère l'emplacement du personnage dans la table ; ces statistiques ne doivent plus être utilisées
+     */
+    public void release() {
+        if (!this.released) {
+            this.released = true;
+            this.table.release(this.slot);
+        }
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Vérifie que les statistiques n'ont pas été libérées (leur emplacement a pu être réattribué)
+     */
+    private void checkNotReleased() {
+        if (this.released) {
+            throw new IllegalStateException(MessageFormat.format(ERR_STATS_RELEASED, this.slot));
+        }
+    }
+}
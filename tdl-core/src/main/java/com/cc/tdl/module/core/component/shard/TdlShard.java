@@ -0,0 +1,193 @@
+package com.cc.tdl.module.core.component.shard;
+
+import com.cc.tdl.module.core.component.TdlEngine;
+import com.cc.tdl.module.core.data.TdlCharacter;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ *                  Shard : un moteur de jeu exécuté par son propre thread, à cadence fixe.
+ *
+ *                  Les personnages entrants (créations, transferts depuis d'autres shards) sont
+ *                  déposés dans une file non bloquante et intégrés au moteur au début du tour
+ *                  suivant, de même que les demandes de retrait du monde. Une demande de retrait
+ *                  visant un personnage absent du moteur suit le personnage s'il est en transit ;
+ *                  s'il appartient à ce shard sans y être (retiré du moteur par un sous-système),
+ *                  il est simplement oublié du registre. Après chaque tour, les
+ *                  personnages qui relèvent désormais d'un autre shard sont retirés du moteur et
+ *                  transférés via le gestionnaire. Aucun verrou n'est partagé entre shards.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Slf4j
+public class TdlShard implements Runnable {
+
+    // Membres internes
+    @Getter
+    private final int                                   index;
+    @Getter
+    private final TdlEngine                             engine;
+    private final TdlShardManager                       manager;
+    private final long                                  tickPeriodNanos;
+    private final Queue<TdlCharacter>                   inbox = new ConcurrentLinkedQueue<>();
+    private final Queue<Long>                           removals = new ConcurrentLinkedQueue<>();
+    private volatile boolean                            running;
+    private Thread                                      thread;
+
+    /**
+     * Constructeur
+     * @param index Index du shard
+     * @param engine Moteur du shard
+     * @param manager Gestionnaire des shards
+     * @param tickPeriodNanos Durée d'un tour, en nanosecondes
+     */
+    TdlShard(int index, TdlEngine engine, TdlShardManager manager, long tickPeriodNanos) {
+        this.index = index;
+        this.engine = engine;
+        this.manager = manager;
+        this.tickPeriodNanos = tickPeriodNanos;
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Dépose un personnage entrant ; il sera intégré au moteur au prochain tour, sauf s'il a quitté le monde
+     * entre-temps (identifiant plus enregistré). Peut être appelé depuis n'importe quel thread.
+     * @param character Personnage
+     */
+    public void offer(TdlCharacter character) {
+        this.inbox.add(character);
+    }
+
+    /**
+     * Demande le retrait d'un personnage du monde ; il sera retiré du moteur au prochain tour.
+     * Peut être appelé depuis n'importe quel thread.
+     * @param id Identifiant du personnage
+     */
+    public void remove(Long id) {
+        this.removals.add(id);
+    }
+
+    /**
+     * Exécute un tour du shard : intégration des personnages entrants, retraits demandés, tour du moteur, puis transfert
+     * des personnages sortis de la zone. Ne doit être appelé que par le thread propriétaire du shard
+     * (ou directement, lorsque le shard n'est pas démarré).
+     * @return Le numéro du tour exécuté
+     */
+    public long tick() {
+        this.drain();
+        // Seules les demandes présentes en début de tour sont traitées : une demande reportée l'est au tour suivant
+        for (int pending = this.removals.size(); pending > 0; pending--) {
+            Long removed = this.removals.poll();
+            if (this.engine.removeCharacter(removed).isDefined()) {
+                this.manager.despawned(removed);
+            }
+            else {
+                this.manager.forwardRemoval(this.index, removed);
+            }
+        }
+        long tick = this.engine.tick();
+        this.engine.getCharacters().forEach(character -> {
+            int target = this.manager.route(character);
+            if (target != this.index) {
+                this.engine.removeCharacter(character.getId());
+                this.manager.handoff(this.index, target, character);
+            }
+        });
+        return tick;
+    }
+
+    /**
+     * Boucle du thread du shard : un tour par période ; en cas de dépassement, le tour suivant démarre
+     * immédiatement sans chercher à rattraper le retard
+     */
+    @Override
+    public void run() {
+        this.engine.start();
+        long next = System.nanoTime();
+        while (this.running) {
+            try {
+                this.tick();
+            }
+            catch (RuntimeException e) {
+                log.error("Echec du tour du shard {}", this.index, e);
+            }
+            next += this.tickPeriodNanos;
+            long delay = next - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            else {
+                next = System.nanoTime();
+            }
+        }
+        this.engine.stop();
+    }
+
+    // ----------------------------------------------- Méthodes du package ------------------------------------------
+
+    /**
+     * Démarre le thread du shard
+     */
+    synchronized void start() {
+        if (this.thread == null) {
+            this.running = true;
+            this.thread = new Thread(this, "tdl-shard-" + this.index);
+            this.thread.start();
+        }
+    }
+
+    /**
+     * Demande l'arrêt du thread du shard, sans attendre sa fin
+     */
+    void requestStop() {
+        this.running = false;
+    }
+
+    /**
+     * Arrête le thread du shard et attend sa fin
+     */
+    synchronized void stop() {
+        this.requestStop();
+        if (this.thread != null) {
+            LockSupport.unpark(this.thread);
+            try {
+                this.thread.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.thread = null;
+        }
+    }
+
+    /**
+     * Indique si un personnage a été déposé dans la file des personnages entrants sans y avoir encore été intégré
+     * @param id Identifiant du personnage
+     * @return
+     */
+    boolean isIncoming(Long id) {
+        return this.inbox.stream().anyMatch(character -> id.equals(character.getId()));
+    }
+
+    /**
+     * Intègre au moteur les personnages entrants. Un personnage retiré du registre pendant son transit
+     * (sortie du monde demandée avant son dépôt) est ignoré. Ne doit être appelé que par le thread
+     * propriétaire du shard (ou directement, lorsque le shard est arrêté).
+     */
+    void drain() {
+        TdlCharacter incoming;
+        while ((incoming = this.inbox.poll()) != null) {
+            if (this.manager.isRegistered(incoming.getId())) {
+                this.engine.addCharacter(incoming);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.cc.tdl.module.core.component.shard;
+
+import com.cc.tdl.module.core.component.TdlEngine;
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.Function1;
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ *                  Gestionnaire de plusieurs moteurs de jeu (shards) dans une même JVM.
+ *
+ *                  Chaque shard gère une zone du monde avec son propre moteur et son propre
+ *                  thread. Un personnage qui change de zone est transféré au shard cible par
+ *                  une file non bloquante, et le registre des identifiants est mis à jour.
+ *                  Un personnage qui quitte le monde doit en être retiré par {@link #despawn(Long)},
+ *                  afin que le registre ne conserve pas son identifiant.
+ *                  Tant qu'ils ne sont pas démarrés, les shards peuvent aussi être exécutés
+ *                  tour par tour depuis le thread appelant.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Slf4j
+public class TdlShardManager implements AutoCloseable {
+
+    // Membres internes
+    @Getter
+    private final TdlShardRegistry                      registry;
+    private final Function1<TdlCharacter, Integer>      router;
+    private final Vector<TdlShard>                      shards;
+    private final Set<Long>                             misrouted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructeur
+     * @param config Configuration
+     * @param engineFactory Fabrique des moteurs, à partir de l'index du shard
+     */
+    public TdlShardManager(@NonNull TdlShardManagerConfig config, @NonNull Function1<Integer, TdlEngine> engineFactory) {
+        this.registry = new TdlShardRegistry(config.getShardCount());
+        this.router = config.getRouter();
+        long tickPeriodNanos = Math.max(1L, config.getTickPeriodNanos());
+        this.shards = Vector.range(0, config.getShardCount())
+                .map(i -> new TdlShard(i, engineFactory.apply(i), this, tickPeriodNanos));
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Démarre le thread de chaque shard
+     */
+    public void start() {
+        this.shards.forEach(TdlShard::start);
+    }
+
+    /**
+     * Arrête le thread de chaque shard et attend leur fin, puis intègre à leur moteur les personnages
+     * encore en transit, afin qu'aucun ne reste bloqué dans la file d'un shard arrêté
+     */
+    public void stop() {
+        this.shards.forEach(TdlShard::requestStop);
+        this.shards.forEach(TdlShard::stop);
+        this.shards.forEach(TdlShard::drain);
+    }
+
+    @Override
+    public void close() {
+        this.stop();
+    }
+
+    /**
+     * Retourne le nombre de shards
+     * @return
+     */
+    public int getShardCount() {
+        return this.shards.size();
+    }
+
+    /**
+     * Retourne un shard
+     * @param index Index du shard
+     * @return
+     */
+    public TdlShard getShard(int index) {
+        return this.shards.get(index);
+    }
+
+    /**
+     * Fait entrer un personnage dans le monde : il est confié au shard de sa zone
+     * @param character Personnage
+     * @return L'index du shard auquel le personnage a été confié
+     */
+    public int spawn(@NonNull TdlCharacter character) {
+        int target = this.route(character);
+        this.registry.register(character.getId(), target);
+        this.shards.get(target).offer(character);
+        return target;
+    }
+
+    /**
+     * Fait sortir un personnage du monde : il est retiré du moteur de son shard au prochain tour de celui-ci,
+     * puis du registre
+     * @param id Identifiant du personnage
+     * @return Vrai si le personnage est connu du registre
+     */
+    public boolean despawn(@NonNull Long id) {
+        Option<Integer> owner = this.registry.getShard(id);
+        owner.forEach(shard -> this.shards.get(shard).remove(id));
+        return owner.isDefined();
+    }
+
+    // ----------------------------------------------- Méthodes du package ------------------------------------------
+
+    /**
+     * Retourne l'index du shard dont relève un personnage. Un index invalide renvoie le shard propriétaire actuel ;
+     * il n'est signalé qu'une fois par personnage, tant que celui-ci n'a pas retrouvé un index valide.
+     * @param character Personnage
+     * @return
+     */
+    int route(TdlCharacter character) {
+        int target = this.router.apply(character);
+        if (target < 0 || target >= this.shards.size()) {
+            int current = this.registry.getShard(character.getId()).getOrElse(0);
+            if (this.misrouted.add(character.getId())) {
+                log.warn("Shard {} invalide pour le personnage {}, maintien dans le shard {}", target, character.getId(), current);
+            }
+            return current;
+        }
+        this.misrouted.remove(character.getId());
+        return target;
+    }
+
+    /**
+     * Oublie un personnage retiré du monde par son shard
+     * @param id Identifiant du personnage
+     */
+    void despawned(Long id) {
+        this.registry.unregister(id);
+        this.misrouted.remove(id);
+    }
+
+    /**
+     * Indique si un personnage est enregistré dans le registre
+     * @param id Identifiant du personnage
+     * @return
+     */
+    boolean isRegistered(Long id) {
+        return this.registry.getShard(id).isDefined();
+    }
+
+    /**
+     * Traite une demande de retrait non aboutie : le personnage n'est pas dans le moteur du shard qui l'a reçue.
+     * Si un autre shard en est propriétaire, ou si le personnage attend dans la file du shard, la demande
+     * lui est transmise pour le tour suivant. Sinon, le personnage a déjà quitté le moteur de son
+     * propriétaire (retrait par un sous-système) : il est oublié du registre. La demande est abandonnée
+     * si le personnage n'est plus enregistré.
+     * @param from Index du shard qui a reçu la demande
+     * @param id Identifiant du personnage
+     */
+    void forwardRemoval(int from, Long id) {
+        this.registry.getShard(id).forEach(owner -> {
+            TdlShard shard = this.shards.get(owner);
+            if (owner != from || shard.isIncoming(id)) {
+                shard.remove(id);
+            }
+            else {
+                this.despawned(id);
+            }
+        });
+    }
+
+    /**
+     * Transfère un personnage retiré d'un shard vers le shard de sa nouvelle zone
+     * @param from Index du shard d'origine
+     * @param target Index du shard cible
+     * @param character Personnage
+     */
+    void handoff(int from, int target, TdlCharacter character) {
+        if (!this.registry.move(character.getId(), from, target)) {
+            this.registry.register(character.getId(), target);
+        }
+        this.shards.get(target).offer(character);
+    }
+}
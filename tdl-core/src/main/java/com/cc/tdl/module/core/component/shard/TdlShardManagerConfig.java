@@ -0,0 +1,30 @@
+package com.cc.tdl.module.core.component.shard;
+
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.Function1;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * <p>
+ *                  Configuration du gestionnaire de shards
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Data
+@Builder
+public class TdlShardManagerConfig {
+
+    // Membres internes
+    /** Nombre de shards (un moteur et un thread par shard) */
+    @Builder.Default
+    private int                                         shardCount = Runtime.getRuntime().availableProcessors();
+    /** Durée d'un tour, en nanosecondes */
+    @Builder.Default
+    private long                                        tickPeriodNanos = 50_000_000L;
+    /** Index du shard dont dépend un personnage (zone dans laquelle il se trouve), par défaut son shard d'origine */
+    @Builder.Default
+    private Function1<TdlCharacter, Integer>            router = character -> TdlShardRegistry.getOriginShard(character.getId());
+}
@@ -0,0 +1,129 @@
+package com.cc.tdl.module.core.component.shard;
+
+import io.vavr.control.Option;
+import lombok.NonNull;
+
+import java.text.MessageFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ *                  Registre des identifiants de personnages tenant compte des shards.
+ *
+ *                  Les identifiants générés portent dans leurs bits de poids fort l'index du
+ *                  shard qui les a créés : chaque shard génère ses identifiants sans coordination.
+ *                  Le registre mémorise par ailleurs le shard propriétaire courant de chaque
+ *                  personnage, mis à jour lors des transferts entre shards.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public class TdlShardRegistry {
+
+    // Constantes publiques
+    public static final int                             SEQUENCE_BITS = 47;
+    public static final int                             MAX_SHARDS = 1 << 16;
+    public static final String                          ERR_SHARD_COUNT = "Nombre de shards invalide : {0} (maximum {1})";
+    public static final String                          ERR_SHARD_INDEX = "Index de shard invalide : {0} (nombre de shards {1})";
+
+    // Membres internes
+    private final ConcurrentMap<Long, Integer>          owners = new ConcurrentHashMap<>();
+    private final AtomicLong[]                          sequences;
+
+    /**
+     * Constructeur
+     * @param shardCount Nombre de shards
+     */
+    public TdlShardRegistry(int shardCount) {
+        if (shardCount <= 0 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException(MessageFormat.format(ERR_SHARD_COUNT, shardCount, MAX_SHARDS));
+        }
+        this.sequences = new AtomicLong[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.sequences[i] = new AtomicLong();
+        }
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Génère un nouvel identifiant de personnage pour un shard
+     * @param shard Index du shard créateur
+     * @return
+     */
+    public long nextId(int shard) {
+        this.checkShard(shard);
+        return ((long) shard << SEQUENCE_BITS) | this.sequences[shard].incrementAndGet();
+    }
+
+    /**
+     * Retourne l'index du shard ayant généré un identifiant
+     * @param id Identifiant
+     * @return
+     */
+    public static int getOriginShard(long id) {
+        return (int) (id >>> SEQUENCE_BITS);
+    }
+
+    /**
+     * Enregistre le shard propriétaire d'un personnage
+     * @param id Identifiant du personnage
+     * @param shard Index du shard
+     */
+    public void register(@NonNull Long id, int shard) {
+        this.checkShard(shard);
+        this.owners.put(id, shard);
+    }
+
+    /**
+     * Transfère la propriété d'un personnage d'un shard à un autre
+     * @param id Identifiant du personnage
+     * @param from Shard propriétaire actuel
+     * @param to Nouveau shard propriétaire
+     * @return Vrai si le transfert a eu lieu, faux si le personnage n'appartenait pas au shard d'origine
+     */
+    public boolean move(@NonNull Long id, int from, int to) {
+        this.checkShard(to);
+        return this.owners.replace(id, from, to);
+    }
+
+    /**
+     * Retourne le shard propriétaire d'un personnage
+     * @param id Identifiant du personnage
+     * @return
+     */
+    public Option<Integer> getShard(@NonNull Long id) {
+        return Option.of(this.owners.get(id));
+    }
+
+    /**
+     * Retire un personnage du registre
+     * @param id Identifiant du personnage
+     */
+    public void unregister(@NonNull Long id) {
+        this.owners.remove(id);
+    }
+
+    /**
+     * Retourne le nombre de shards
+     * @return
+     */
+    public int getShardCount() {
+        return this.sequences.length;
+    }
+
+    // --------------------------------------- Méthodes privées ---------------------------------------------
+
+    /**
+     * Vérifie qu'un index de shard est valide
+     * @param shard Index du shard
+     */
+    private void checkShard(int shard) {
+        if (shard < 0 || shard >= this.sequences.length) {
+            throw new IllegalArgumentException(MessageFormat.format(ERR_SHARD_INDEX, shard, this.sequences.length));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.cc.tdl.module.core.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ *                  Décision prise par le comportement d'un personnage non joueur
+ *                  lors d'un tour de jeu
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor(staticName = "of")
+public class TdlAiDecision<D> {
+
+    // Membres internes
+    private Long                characterId;
+    private D                   decision;
+    private long                tick;
+}
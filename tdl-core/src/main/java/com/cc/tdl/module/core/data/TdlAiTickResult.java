@@ -0,0 +1,29 @@
+package com.cc.tdl.module.core.data;
+
+import io.vavr.collection.Seq;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ *                  Résultat de l'évaluation des comportements sur un tour de jeu :
+ *                  décisions prises et travail reporté au tour suivant
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TdlAiTickResult<D> {
+
+    // Membres internes
+    private Seq<TdlAiDecision<D>>   decisions;
+    private int                     evaluatedCount;
+    private int                     deferredCount;
+    private long                    elapsedNanos;
+}
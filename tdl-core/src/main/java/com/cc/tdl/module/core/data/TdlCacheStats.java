@@ -0,0 +1,57 @@
+package com.cc.tdl.module.core.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ *                  Photographie des statistiques d'un cache de personnages
+ *                  (succès, échecs, chargements, évictions, écritures)
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TdlCacheStats {
+
+    // Membres internes
+    private long                hitCount;
+    private long                missCount;
+    private long                loadSuccessCount;
+    private long                loadFailureCount;
+    private long                totalLoadTimeNanos;
+    private long                evictionCount;
+    private long                evictionWeight;
+    private long                writeCount;
+    private long                writeFailureCount;
+    private long                size;
+    private long                weight;
+    private long                pendingWriteCount;
+    private long                pendingWriteWeight;
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Retourne le taux de succès du cache (entre 0 et 1)
+     * @return
+     */
+    public double getHitRate() {
+        long requestCount = this.hitCount + this.missCount;
+        return requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount;
+    }
+
+    /**
+     * Retourne la durée moyenne d'un chargement, en nanosecondes
+     * @return
+     */
+    public double getAverageLoadPenaltyNanos() {
+        long loadCount = this.loadSuccessCount + this.loadFailureCount;
+        return loadCount == 0 ? 0.0 : (double) this.totalLoadTimeNanos / loadCount;
+    }
+}
@@ -1,11 +1,15 @@
 package com.cc.tdl.module.core.data;
 
 import com.cc.tools.data.Identifiable;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 /**
  * <p>
  *                  Classe de base pour les données correspondant
@@ -19,9 +23,15 @@ import lombok.NoArgsConstructor;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class TdlCharacter implements Identifiable<Long> {
+public class TdlCharacter implements Identifiable<Long>, Serializable {
+
+    // Constantes privées
+    private static final long   serialVersionUID = 1L;
 
     // Membres internes
-    private Long                id;
+    private Long                            id;
+    /** Valeurs des statistiques de base, par nom (les statistiques dérivées sont recalculées par le moteur) */
+    @Builder.Default
+    private Map<String, Double>             baseStats = HashMap.empty();
 
 }
@@ -0,0 +1,178 @@
+package com.cc.tdl.module.core.data;
+
+import io.vavr.Tuple2;
+import io.vavr.collection.Seq;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ *                  Carte du monde sous forme de grille de cases franchissables ou bloquées.
+ *
+ *                  Une carte est immuable : toute modification produit une nouvelle carte,
+ *                  ce qui permet aux calculs d'itinéraires en cours de travailler sur une
+ *                  version stable. La grille est découpée en régions carrées dont la version
+ *                  est remplacée, à chaque modification d'une de leurs cases, par un tampon
+ *                  global strictement croissant : deux cartes dérivées d'une même carte par
+ *                  des modifications différentes n'ont jamais la même version de région.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public class TdlGridMap {
+
+    // Constantes publiques
+    public static final String                  ERR_GRID_SIZE = "Dimensions de grille invalides : {0}x{1} (régions de {2})";
+    public static final String                  ERR_GRID_CELL = "La case ({0}, {1}) est hors de la grille {2}x{3}";
+
+    // Membres internes
+    private static final AtomicLong             versionStamp = new AtomicLong();
+    @Getter
+    private final int                           width;
+    @Getter
+    private final int                           height;
+    @Getter
+    private final int                           regionSize;
+    private final int                           regionColumns;
+    private final boolean[]                     blocked;
+    private final long[]                        regionVersions;
+
+    /**
+     * Constructeur d'une grille entièrement franchissable
+     * @param width Largeur
+     * @param height Hauteur
+     * @param regionSize Côté d'une région, en cases
+     */
+    public TdlGridMap(int width, int height, int regionSize) {
+        if (width <= 0 || height <= 0 || regionSize <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format(ERR_GRID_SIZE, width, height, regionSize));
+        }
+        this.width = width;
+        this.height = height;
+        this.regionSize = regionSize;
+        this.regionColumns = (width + regionSize - 1) / regionSize;
+        this.blocked = new boolean[width * height];
+        this.regionVersions = new long[this.regionColumns * ((height + regionSize - 1) / regionSize)];
+    }
+
+    /**
+     * Constructeur de copie modifiée
+     * @param source Carte d'origine
+     * @param blocked Cases bloquées
+     * @param regionVersions Versions des régions
+     */
+    private TdlGridMap(TdlGridMap source, boolean[] blocked, long[] regionVersions) {
+        this.width = source.width;
+        this.height = source.height;
+        this.regionSize = source.regionSize;
+        this.regionColumns = source.regionColumns;
+        this.blocked = blocked;
+        this.regionVersions = regionVersions;
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Indique si une case est dans la grille et franchissable
+     * @param x Abscisse
+     * @param y Ordonnée
+     * @return
+     */
+    public boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < this.width && y < this.height && !this.blocked[y * this.width + x];
+    }
+
+    /**
+     * Retourne l'index d'une case (y * largeur + x)
+     * @param x Abscisse
+     * @param y Ordonnée
+     * @return
+     */
+    public int getCell(int x, int y) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            throw new IllegalArgumentException(MessageFormat.format(ERR_GRID_CELL, x, y, this.width, this.height));
+        }
+        return y * this.width + x;
+    }
+
+    /**
+     * Retourne le nombre de cases de la grille
+     * @return
+     */
+    public int getCellCount() {
+        return this.blocked.length;
+    }
+
+    /**
+     * Retourne la région contenant une case
+     * @param cell Index de la case
+     * @return
+     */
+    public int getRegion(int cell) {
+        return (cell % this.width) / this.regionSize + ((cell / this.width) / this.regionSize) * this.regionColumns;
+    }
+
+    /**
+     * Retourne le nombre de régions de la grille
+     * @return
+     */
+    public int getRegionCount() {
+        return this.regionVersions.length;
+    }
+
+    /**
+     * Retourne la version d'une région
+     * @param region Index de la région
+     * @return
+     */
+    public long getRegionVersion(int region) {
+        return this.regionVersions[region];
+    }
+
+    /**
+     * Indique si une autre carte a les mêmes dimensions et le même découpage en régions
+     * @param other Autre carte
+     * @return
+     */
+    public boolean isSameLayout(@NonNull TdlGridMap other) {
+        return this.width == other.width && this.height == other.height && this.regionSize == other.regionSize;
+    }
+
+    /**
+     * Retourne une nouvelle carte dans laquelle des cases ont été bloquées ou débloquées
+     * @param cells Cases modifiées (x, y)
+     * @param value Vrai pour bloquer, faux pour débloquer
+     * @return
+     */
+    public TdlGridMap withBlocked(@NonNull Seq<Tuple2<Integer, Integer>> cells, boolean value) {
+        boolean[] newBlocked = this.blocked.clone();
+        long[] newVersions = this.regionVersions.clone();
+        long stamp = 0L;
+        for (Tuple2<Integer, Integer> c : cells) {
+            int cell = this.getCell(c._1(), c._2());
+            if (newBlocked[cell] != value) {
+                newBlocked[cell] = value;
+                int region = this.getRegion(cell);
+                // Un seul tampon par modification, quel que soit le nombre de cases et de régions modifiées
+                if (stamp == 0L) {
+                    stamp = versionStamp.incrementAndGet();
+                }
+                newVersions[region] = stamp;
+            }
+        }
+        return new TdlGridMap(this, newBlocked, newVersions);
+    }
+
+    /**
+     * Indique si une case est franchissable, à partir de son index (sans contrôle de bornes)
+     * @param cell Index de la case
+     * @return
+     */
+    public boolean isWalkableCell(int cell) {
+        return !this.blocked[cell];
+    }
+}
@@ -0,0 +1,67 @@
+package com.cc.tdl.module.core.data;
+
+import lombok.NonNull;
+
+/**
+ * <p>
+ *                  Itinéraire sur une grille : suite de cases, du départ
+ *                  à l'arrivée incluses. Un itinéraire est immuable et peut
+ *                  être partagé entre plusieurs demandes.
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public class TdlPath {
+
+    // Membres internes
+    private final int[]                 cells;
+    private final int                   width;
+
+    /**
+     * Constructeur
+     * @param cells Index des cases (y * largeur + x), non copié
+     * @param width Largeur de la grille
+     */
+    public TdlPath(@NonNull int[] cells, int width) {
+        this.cells = cells;
+        this.width = width;
+    }
+
+    // ----------------------------------------------- Méthodes publiques -------------------------------------------
+
+    /**
+     * Retourne le nombre de cases de l'itinéraire
+     * @return
+     */
+    public int size() {
+        return this.cells.length;
+    }
+
+    /**
+     * Retourne l'index de la case à une étape
+     * @param step Etape
+     * @return
+     */
+    public int getCell(int step) {
+        return this.cells[step];
+    }
+
+    /**
+     * Retourne l'abscisse de la case à une étape
+     * @param step Etape
+     * @return
+     */
+    public int getX(int step) {
+        return this.cells[step] % this.width;
+    }
+
+    /**
+     * Retourne l'ordonnée de la case à une étape
+     * @param step Etape
+     * @return
+     */
+    public int getY(int step) {
+        return this.cells[step] / this.width;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cc.tdl.module.core.data;
+
+import io.vavr.control.Option;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ *                  Résultat d'une demande d'itinéraire
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TdlPathResult {
+
+    // Membres internes
+    private long                ticket;
+    private int                 startX;
+    private int                 startY;
+    private int                 goalX;
+    private int                 goalY;
+    private Option<TdlPath>     path;
+    private boolean             fromCache;
+    /** Vrai si l'itinéraire a été calculé sur une carte modifiée depuis, sur son parcours */
+    private boolean             stale;
+}
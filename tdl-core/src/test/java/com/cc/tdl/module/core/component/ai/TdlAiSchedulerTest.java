@@ -0,0 +1,125 @@
+package com.cc.tdl.module.core.component.ai;
+
+import com.cc.tdl.module.core.data.TdlAiTickResult;
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.control.Option;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de l'ordonnanceur des comportements
+ */
+public class TdlAiSchedulerTest {
+
+    @Test
+    public void tickStaysWithinBudgetWithManyAgents() {
+        long budget = 2_000_000L;
+        // Pas plus de threads que de processeurs : un thread préempté en cours d'évaluation prolongerait le tour
+        int parallelism = Math.min(4, Runtime.getRuntime().availableProcessors());
+        try (TdlAiScheduler<String> scheduler = new TdlAiScheduler<>(TdlAiSchedulerConfig.builder()
+                .tickBudgetNanos(budget)
+                .parallelism(parallelism)
+                .build())) {
+            for (long id = 0; id < 400_000; id++) {
+                scheduler.register(TdlCharacter.builder().id(id).build(), c -> Option.none());
+            }
+            // Préchauffage du compilateur JIT
+            for (long tick = 1; tick <= 50; tick++) {
+                scheduler.tick(tick);
+            }
+            long[] elapsed = new long[101];
+            for (int i = 0; i < elapsed.length; i++) {
+                TdlAiTickResult<String> result = scheduler.tick(51 + i);
+                assertTrue(result.getEvaluatedCount() > 0);
+                assertEquals(400_000, result.getEvaluatedCount() + result.getDeferredCount());
+                elapsed[i] = result.getElapsedNanos();
+            }
+            // La médiane écarte les pauses du système (ordonnancement des threads, ramasse-miettes)
+            Arrays.sort(elapsed);
+            long median = elapsed[elapsed.length / 2];
+            assertTrue("Tour médian de " + median + " ns pour un budget de " + budget + " ns", median < 2 * budget);
+        }
+    }
+
+    @Test
+    public void zeroBudgetEvaluatesEveryAgentInTurn() {
+        try (TdlAiScheduler<Long> scheduler = new TdlAiScheduler<>(TdlAiSchedulerConfig.builder()
+                .tickBudgetNanos(0L)
+                .parallelism(1)
+                .build())) {
+            for (long id = 0; id < 10; id++) {
+                scheduler.register(TdlCharacter.builder().id(id).build(), c -> Option.of(c.getId()));
+            }
+            Set<Long> seen = new HashSet<>();
+            for (long tick = 1; tick <= 10; tick++) {
+                TdlAiTickResult<Long> result = scheduler.tick(tick);
+                assertEquals(1, result.getEvaluatedCount());
+                assertEquals(9, result.getDeferredCount());
+                seen.add(result.getDecisions().head().getDecision());
+            }
+            assertEquals(10, seen.size());
+        }
+    }
+
+    @Test
+    public void importantAgentsAreEvaluatedMoreOften() {
+        ConcurrentHashMap<Long, AtomicInteger> counts = new ConcurrentHashMap<>();
+        try (TdlAiScheduler<Long> scheduler = new TdlAiScheduler<>(TdlAiSchedulerConfig.builder()
+                .tickBudgetNanos(0L)
+                .parallelism(1)
+                .importance(c -> c.getId() == 0L ? 3.0 : 1.0)
+                .build())) {
+            for (long id = 0; id < 4; id++) {
+                scheduler.register(TdlCharacter.builder().id(id).build(), c -> {
+                    counts.computeIfAbsent(c.getId(), k -> new AtomicInteger()).incrementAndGet();
+                    return Option.none();
+                });
+            }
+            for (long tick = 1; tick <= 600; tick++) {
+                scheduler.tick(tick);
+            }
+        }
+        assertEquals(300, counts.get(0L).get(), 2);
+        for (long id = 1; id < 4; id++) {
+            assertEquals(100, counts.get(id).get(), 2);
+        }
+    }
+
+    @Test
+    public void unregisteredAgentsAreNoLongerEvaluated() {
+        AtomicInteger evaluations = new AtomicInteger();
+        try (TdlAiScheduler<String> scheduler = new TdlAiScheduler<>(TdlAiSchedulerConfig.builder()
+                .tickBudgetNanos(1_000_000_000L)
+                .parallelism(2)
+                .build())) {
+            for (long id = 0; id < 100; id++) {
+                scheduler.register(TdlCharacter.builder().id(id).build(), c -> {
+                    evaluations.incrementAndGet();
+                    return Option.none();
+                });
+            }
+            for (long id = 0; id < 100; id += 2) {
+                assertTrue(scheduler.unregister(id));
+            }
+            TdlAiTickResult<String> result = scheduler.tick(1);
+            assertEquals(50, result.getEvaluatedCount());
+            assertEquals(0, result.getDeferredCount());
+            assertEquals(50, evaluations.get());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void tickAfterCloseIsRejected() {
+        TdlAiScheduler<String> scheduler = new TdlAiScheduler<>(TdlAiSchedulerConfig.builder().build());
+        scheduler.close();
+        scheduler.tick(1);
+    }
+}
@@ -0,0 +1,137 @@
+package com.cc.tdl.module.core.component.cache;
+
+import com.cc.tdl.module.core.data.TdlCacheStats;
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests du cache de personnages
+ */
+public class TdlCharacterCacheTest {
+
+    @Test
+    public void pendingWritesAreBoundedWhenTheStoreFails() {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        MemoryStore store = new MemoryStore(failing);
+        try (TdlCharacterCache cache = new TdlCharacterCache(store, TdlCharacterCacheConfig.builder()
+                .maximumWeight(100L)
+                .writeBehindDelayMillis(60_000L)
+                .build())) {
+            int accepted = 0;
+            try {
+                for (long id = 0; id < 1_000; id++) {
+                    cache.put(TdlCharacter.builder().id(id).build());
+                    accepted++;
+                }
+                fail("L'écriture différée aurait dû être saturée");
+            }
+            catch (IllegalStateException e) {
+                TdlCacheStats stats = cache.getStats();
+                // Limite de l'attente, plus les résidents modifiés qui y sont passés lors de l'écriture synchrone
+                assertTrue(stats.getPendingWriteWeight() <= 201L);
+                assertTrue(accepted < 1_000);
+            }
+
+            // Le stockage rétabli absorbe l'attente et les modifications sont de nouveau acceptées
+            failing.set(false);
+            cache.put(TdlCharacter.builder().id(5_000L).build());
+            cache.flush();
+            assertEquals(0L, cache.getStats().getPendingWriteWeight());
+            assertEquals(accepted + 1, store.characters.size());
+        }
+    }
+
+    @Test
+    public void loadOverlappingAWriteReturnsTheWrittenVersion() throws Exception {
+        MemoryStore store = new MemoryStore(new AtomicBoolean(false));
+        store.characters.put(1L, version(0.0));
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        store.onLoad = () -> {
+            reading.countDown();
+            release.await();
+        };
+        try (TdlCharacterCache cache = new TdlCharacterCache(store, TdlCharacterCacheConfig.builder()
+                .writeBehindDelayMillis(60_000L)
+                .build())) {
+            // Le chargement lit la version 0, puis la version 1 est ajoutée, évincée et écrite avant qu'il ne se termine
+            CompletableFuture<Option<TdlCharacter>> loading = cache.get(1L);
+            reading.await();
+            store.onLoad = null;
+            cache.put(version(1.0));
+            cache.invalidate(1L);
+            cache.flush();
+            release.countDown();
+            assertEquals(1.0, loading.get(10, TimeUnit.SECONDS).get().getBaseStats().get("version").get(), 0.0);
+            assertEquals(1.0, cache.getIfPresent(1L).get().getBaseStats().get("version").get(), 0.0);
+        }
+    }
+
+    /**
+     * Construit une version du personnage 1
+     * @param version Numéro de version
+     * @return
+     */
+    private static TdlCharacter version(double version) {
+        return TdlCharacter.builder().id(1L).baseStats(HashMap.of("version", version)).build();
+    }
+
+    /**
+     * Action exécutée pendant un chargement
+     */
+    @FunctionalInterface
+    private interface LoadHook {
+
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * Stockage en mémoire dont les écritures peuvent échouer
+     */
+    private static class MemoryStore implements TdlCharacterStore {
+
+        private final ConcurrentHashMap<Long, TdlCharacter>     characters = new ConcurrentHashMap<>();
+        private final AtomicBoolean                             failing;
+        private volatile LoadHook                               onLoad;
+
+        MemoryStore(AtomicBoolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public Option<TdlCharacter> load(Long id) {
+            Option<TdlCharacter> result = Option.of(this.characters.get(id));
+            LoadHook hook = this.onLoad;
+            if (hook != null) {
+                try {
+                    hook.run();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void storeAll(Seq<TdlCharacter> characters) {
+            if (this.failing.get()) {
+                throw new IllegalStateException("Stockage indisponible");
+            }
+            characters.forEach(c -> this.characters.put(c.getId(), c));
+        }
+    }
+}
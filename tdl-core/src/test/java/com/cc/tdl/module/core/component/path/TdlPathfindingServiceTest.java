@@ -0,0 +1,83 @@
+package com.cc.tdl.module.core.component.path;
+
+import com.cc.tdl.module.core.data.TdlGridMap;
+import com.cc.tdl.module.core.data.TdlPath;
+import com.cc.tdl.module.core.data.TdlPathResult;
+import io.vavr.Tuple;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests du service de calcul d'itinéraires
+ */
+public class TdlPathfindingServiceTest {
+
+    @Test
+    public void cachedDiagonalIsInvalidatedWhenItsCornerIsBlocked() throws InterruptedException {
+        // Grille 4x4 en régions 2x2 : le pas (1,1) -> (2,2) longe les cases de coin (2,1) et (1,2),
+        // situées dans des régions que l'itinéraire ne traverse pas
+        TdlGridMap map = new TdlGridMap(4, 4, 2);
+        try (TdlPathfindingService service = new TdlPathfindingService(map, TdlPathfindingConfig.builder()
+                .parallelism(1)
+                .cacheAdmissionThreshold(1)
+                .build())) {
+            TdlPathResult first = this.await(service, service.submit(1, 1, 2, 2));
+            assertEquals(2, first.getPath().get().size());
+
+            TdlPathResult cached = this.await(service, service.submit(1, 1, 2, 2));
+            assertTrue(cached.isFromCache());
+
+            service.setMap(map.withBlocked(List.of(Tuple.of(2, 1)), true));
+            TdlPathResult fresh = this.await(service, service.submit(1, 1, 2, 2));
+            assertFalse(fresh.isFromCache());
+            TdlPath path = fresh.getPath().get();
+            assertEquals(3, path.size());
+            assertEquals(1, path.getX(1));
+            assertEquals(2, path.getY(1));
+        }
+    }
+
+    @Test
+    public void resultComputedOnSupersededMapIsRecomputed() throws InterruptedException {
+        TdlGridMap map = new TdlGridMap(8, 8, 4);
+        try (TdlPathfindingService service = new TdlPathfindingService(map, TdlPathfindingConfig.builder()
+                .parallelism(1)
+                .build())) {
+            long ticket = service.submit(0, 0, 7, 0);
+            assertTrue(service.tick().isEmpty());
+            Thread.sleep(100);
+            // La ligne y = 0 est coupée en x = 3 après le calcul, avant la livraison
+            service.setMap(map.withBlocked(List.of(Tuple.of(3, 0)), true));
+            TdlPathResult result = this.await(service, ticket);
+            assertFalse(result.isStale());
+            TdlPath path = result.getPath().get();
+            for (int step = 0; step < path.size(); step++) {
+                assertFalse(path.getX(step) == 3 && path.getY(step) == 0);
+            }
+        }
+    }
+
+    /**
+     * Exécute des tours jusqu'à la livraison du résultat d'une demande
+     * @param service Service
+     * @param ticket Ticket de la demande
+     * @return
+     */
+    private TdlPathResult await(TdlPathfindingService service, long ticket) throws InterruptedException {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            Seq<TdlPathResult> results = service.tick().filter(r -> r.getTicket() == ticket);
+            if (!results.isEmpty()) {
+                return results.head();
+            }
+            Thread.sleep(10);
+        }
+        fail("Aucun résultat pour la demande " + ticket);
+        return null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.cc.tdl.module.core.component.rules;
+
+import com.cc.tdl.module.core.component.TdlEngine;
+import com.cc.tdl.module.core.data.TdlCharacter;
+import io.vavr.collection.HashMap;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests de la table des statistiques
+ */
+public class TdlStatTableTest {
+
+    @Test
+    public void onlyStaleStatisticsAreRecomputed() {
+        AtomicInteger computations = new AtomicInteger();
+        TdlStatTable table = new TdlStatTable(this.ruleSet(computations));
+        TdlStats first = table.allocate();
+        TdlStats second = table.allocate();
+        assertEquals(20.0, first.get("attack"), 0.0);
+        assertEquals(20.0, second.get("attack"), 0.0);
+        assertEquals(2, computations.get());
+
+        // Seule la dérivée du personnage modifié est périmée
+        first.set("strength", 15.0);
+        assertEquals(20.0, second.get("attack"), 0.0);
+        assertEquals(2, computations.get());
+        assertEquals(30.0, first.get("attack"), 0.0);
+        assertEquals(3, computations.get());
+
+        // Une valeur inchangée ne périme rien
+        first.set("strength", 15.0);
+        assertEquals(30.0, first.get("attack"), 0.0);
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    public void recomputeAllRefreshesEveryStaleStatistic() {
+        AtomicInteger computations = new AtomicInteger();
+        TdlStatTable table = new TdlStatTable(this.ruleSet(computations));
+        TdlStats first = table.allocate();
+        TdlStats second = table.allocate();
+        first.set("strength", 1.0);
+        second.set("strength", 2.0);
+        table.recomputeAll();
+        int computed = computations.get();
+
+        // Après le rafraîchissement, les lectures ne recalculent plus rien
+        assertEquals(2.0, first.get("attack"), 0.0);
+        assertEquals(4.0, second.get("attack"), 0.0);
+        assertEquals(computed, computations.get());
+
+        // Sans statistique périmée, le rafraîchissement n'évalue aucune règle
+        table.recomputeAll();
+        assertEquals(computed, computations.get());
+    }
+
+    @Test
+    public void releasedSlotIsReusedWithDefaultValues() {
+        TdlStatTable table = new TdlStatTable(this.ruleSet(new AtomicInteger()));
+        TdlStats released = table.allocate();
+        released.set("strength", 50.0);
+        assertEquals(100.0, released.get("attack"), 0.0);
+        released.release();
+
+        TdlStats reused = table.allocate();
+        assertEquals(released.getSlot(), reused.getSlot());
+        assertEquals(1, table.size());
+        assertEquals(10.0, reused.get("strength"), 0.0);
+        assertEquals(20.0, reused.get("attack"), 0.0);
+        try {
+            released.get("attack");
+            fail("Les statistiques libérées ne doivent plus être lues");
+        }
+        catch (IllegalStateException e) {
+            // Attendu
+        }
+    }
+
+    @Test
+    public void engineTickRefreshesTheTableBeforeItsListeners() {
+        AtomicInteger computations = new AtomicInteger();
+        TdlEngine engine = new TdlEngine(this.ruleSet(computations));
+        engine.addCharacter(TdlCharacter.builder().id(1L).baseStats(HashMap.of("strength", 12.0)).build());
+        int[] duringTick = new int[1];
+        engine.addTickListener((e, tick) -> {
+            duringTick[0] = computations.get();
+            assertEquals(24.0, e.getStats(1L).get().get("attack"), 0.0);
+            assertEquals(duringTick[0], computations.get());
+        });
+        engine.tick();
+        assertEquals(1, duringTick[0]);
+    }
+
+    /**
+     * Construit un ensemble de règles dont la statistique dérivée compte ses calculs
+     * @param computations Compteur des calculs
+     * @return
+     */
+    private TdlRuleSet ruleSet(AtomicInteger computations) {
+        return TdlRuleSet.builder()
+                .base("strength", 10.0)
+                .derived("attack", inputs -> {
+                    computations.incrementAndGet();
+                    return inputs[0] * 2;
+                }, "strength")
+                .build();
+    }
+}
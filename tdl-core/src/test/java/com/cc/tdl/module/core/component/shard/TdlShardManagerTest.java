@@ -0,0 +1,59 @@
+package com.cc.tdl.module.core.component.shard;
+
+import com.cc.tdl.module.core.component.TdlEngine;
+import com.cc.tdl.module.core.data.TdlCharacter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests du gestionnaire de shards
+ */
+public class TdlShardManagerTest {
+
+    @Test
+    public void despawnOfCharacterRemovedByAListenerClearsTheRegistry() {
+        try (TdlShardManager manager = new TdlShardManager(TdlShardManagerConfig.builder()
+                .shardCount(2)
+                .router(c -> 0)
+                .build(), i -> {
+                    TdlEngine engine = new TdlEngine();
+                    // Sous-système retirant les personnages morts, sans passer par le gestionnaire
+                    engine.addTickListener((e, tick) -> e.removeCharacter(1L));
+                    return engine;
+                })) {
+            assertEquals(0, manager.spawn(TdlCharacter.builder().id(1L).build()));
+            TdlShard shard = manager.getShard(0);
+            shard.tick();
+            assertTrue(shard.getEngine().getCharacter(1L).isEmpty());
+
+            assertTrue(manager.despawn(1L));
+            shard.tick();
+            assertTrue(manager.getRegistry().getShard(1L).isEmpty());
+            assertFalse(manager.despawn(1L));
+        }
+    }
+
+    @Test
+    public void despawnFollowsACharacterHandedOffToAnotherShard() {
+        int[] zone = {0};
+        try (TdlShardManager manager = new TdlShardManager(TdlShardManagerConfig.builder()
+                .shardCount(2)
+                .router(c -> zone[0])
+                .build(), i -> new TdlEngine())) {
+            manager.spawn(TdlCharacter.builder().id(1L).build());
+            manager.getShard(0).tick();
+            // Le personnage change de zone et part vers le shard 1 ; une demande de sortie parvient ensuite au shard 0
+            zone[0] = 1;
+            manager.getShard(0).tick();
+            manager.getShard(0).remove(1L);
+            manager.getShard(0).tick();
+            assertEquals(1, (int) manager.getRegistry().getShard(1L).get());
+            manager.getShard(1).tick();
+            assertTrue(manager.getShard(1).getEngine().getCharacter(1L).isEmpty());
+            assertTrue(manager.getRegistry().getShard(1L).isEmpty());
+        }
+    }
+}
@@ -35,6 +35,7 @@ public class AnnotationsHelper {
      * @since 0.0.1
      */
     public static <T extends Annotation> Queue<T> getAnnotations(Class<?> annotedClass, Class<T> annotationClass){
+        WarmupHelper.record(WarmupHelper.ESource.ANNOTATIONS, annotedClass);
         Queue<T> result = Queue.empty();
         Class<?> consideredClass = annotedClass;
         while (consideredClass!=null){
@@ -56,6 +57,7 @@ public class AnnotationsHelper {
      * @since 0.0.1
      */
     public static <T extends Annotation> List<AnnotedField<T>> getAnnotedFields(Class<?> annotedClass, Class<T> annotation) {
+        WarmupHelper.record(WarmupHelper.ESource.ANNOTATIONS, annotedClass);
         List<AnnotedField<T>> result = List.empty();
         // Recherche des champs de la classe
         Class<?> consideredClass = annotedClass;
@@ -210,6 +210,7 @@ public abstract class BeansHelper {
      */
     @SuppressWarnings("unchecked")
     private static <T> BeanInfo<T> getBeanInfo(Class<T> beanClass){
+        WarmupHelper.record(WarmupHelper.ESource.BEANS, beanClass);
         synchronized(BeansHelper.class){
             Tuple2<BeanInfo<?>,Map<Class<?>, BeanInfo<?>>> result = (Tuple2<BeanInfo<?>, Map<Class<?>, BeanInfo<?>>>) beansMap.computeIfAbsent(beanClass, BeanInfo::new);
             beansMap = result._2();
@@ -128,6 +128,7 @@ public abstract class GenericsHelper {
      */
     @SuppressWarnings("unchecked")
     private static <T> Class<T> searchGenericArgumentForClass(Class<?> clazz, int argIndex, boolean safeMode) {
+        WarmupHelper.record(WarmupHelper.ESource.GENERICS, clazz);
         Class<T> result = null;
         Type supertype = clazz.getGenericSuperclass();
         if (supertype instanceof ParameterizedType) {
@@ -173,6 +174,7 @@ public abstract class GenericsHelper {
      * @return
      */
     private static <T> Class<T> searchGenericArgumentForInterface(Class<?> clazz, Class<?> specificClass, Function1<Class<?>, Integer> argIndexSupplier, boolean safeMode) {
+        WarmupHelper.record(WarmupHelper.ESource.GENERICS, clazz);
         Class<T> result = null;
         Type[] genericInterfaces = clazz.getGenericInterfaces();
         if (genericInterfaces!=null && genericInterfaces.length > 0) {
@@ -0,0 +1,40 @@
+package com.cc.tools.helper;
+
+import lombok.NonNull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ *                  Classe d'aide pour la création des threads techniques
+ *                  (pools de travail, tâches de fond)
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+public abstract class ThreadsHelper {
+
+    /**
+     * Constructeur interne
+     */
+    private ThreadsHelper() {
+
+    }
+
+    // ------------------------------------------ Méthodes statiques publiques --------------------------------------
+    /**
+     * Retourne une fabrique de threads démons, nommés à partir d'un préfixe suivi d'un numéro d'ordre
+     * @param prefix Préfixe du nom des threads
+     * @return
+     */
+    public static ThreadFactory daemonThreadFactory(@NonNull String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,252 @@
+package com.cc.tools.helper;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ *                  Classe d'aide au démarrage rapide (démarrage "à chaud").
+ *
+ *                  En mode apprentissage, les classes manipulées par les helpers de réflexion
+ *                  ({@link BeansHelper}, {@link GenericsHelper}, {@link AnnotationsHelper}) sont
+ *                  enregistrées, puis écrites dans {@value #METADATA_FILE} avec le helper qui les a
+ *                  utilisées. Ce fichier est relu par {@link #warmUp(Path)} pour remplir en bloc les
+ *                  caches de réflexion au démarrage suivant, sans exécuter l'initialisation statique
+ *                  des classes.
+ *
+ *                  Le chargement des classes elles-mêmes (JDK, vavr, logback, application) relève
+ *                  d'une archive AppCDS produite par la JVM d'apprentissage, qui seule connaît toutes
+ *                  les classes chargées au démarrage :
+ *                  <ul>
+ *                      <li>archive dynamique : la JVM d'apprentissage est lancée avec les options de
+ *                      {@link #getTrainingJvmOptions(Path)}
+ *                      (<code>-XX:ArchiveClassesAtExit=.../{@value #ARCHIVE_FILE}</code>), les suivantes avec
+ *                      celles de {@link #getStartupJvmOptions(Path)}
+ *                      (<code>-XX:SharedArchiveFile=.../{@value #ARCHIVE_FILE}</code>) ;</li>
+ *                      <li>archive statique : la JVM d'apprentissage est lancée avec
+ *                      <code>-XX:DumpLoadedClassList=classes.lst</code>, puis l'archive est créée par
+ *                      <code>java -Xshare:dump -XX:SharedClassListFile=classes.lst -XX:SharedArchiveFile=tdl.jsa -cp ...</code>.</li>
+ *                  </ul>
+ * </p>
+ *
+ * @author Cyril Chevalier
+ * @since 0.1.0
+ */
+@Slf4j
+public abstract class WarmupHelper {
+
+    // Constantes publiques
+    public static final String                                      METADATA_FILE = "warmup-metadata.txt";
+    public static final String                                      ARCHIVE_FILE = "tdl.jsa";
+    public static final String                                      ERR_WARMUP_WRITE = "Impossible d''écrire les données de démarrage dans {0}";
+    public static final String                                      ERR_WARMUP_READ = "Impossible de lire les données de démarrage depuis {0}";
+
+    // Constantes privées
+    private static final String                                     SEPARATOR = " ";
+
+    // Membres internes
+    private static final Set<Tuple2<ESource, Class<?>>>             recorded = ConcurrentHashMap.newKeySet();
+    private static volatile boolean                                 training;
+
+    /**
+     * Constructeur privé
+     */
+    private WarmupHelper() {
+
+    }
+
+    // ------------------------------------------ Méthodes statiques publiques --------------------------------------
+    /**
+     * Active le mode apprentissage : les classes manipulées par les helpers sont enregistrées
+     */
+    public static void startTraining() {
+        training = true;
+    }
+
+    /**
+     * Désactive le mode apprentissage (les classes déjà enregistrées sont conservées)
+     */
+    public static void stopTraining() {
+        training = false;
+    }
+
+    /**
+     * Indique si le mode apprentissage est actif
+     * @return
+     */
+    public static boolean isTraining() {
+        return training;
+    }
+
+    /**
+     * Enregistre une classe manipulée par un helper, si le mode apprentissage est actif
+     * @param source Helper ayant manipulé la classe
+     * @param clazz Classe manipulée
+     */
+    public static void record(ESource source, Class<?> clazz) {
+        if (training && clazz != null) {
+            recorded.add(Tuple.of(source, clazz));
+        }
+    }
+
+    /**
+     * Retourne les classes enregistrées
+     * @return
+     */
+    public static Seq<Tuple2<ESource, Class<?>>> getRecorded() {
+        return List.ofAll(recorded);
+    }
+
+    /**
+     * Oublie les classes enregistrées
+     */
+    public static void clear() {
+        recorded.clear();
+    }
+
+    /**
+     * Retourne les options de la JVM d'apprentissage : l'archive AppCDS des classes chargées est écrite
+     * dans un répertoire à l'arrêt de la JVM
+     * @param directory Répertoire de l'archive
+     * @return
+     */
+    public static Seq<String> getTrainingJvmOptions(@NonNull Path directory) {
+        return List.of("-XX:ArchiveClassesAtExit=" + directory.resolve(ARCHIVE_FILE));
+    }
+
+    /**
+     * Retourne les options des JVM démarrant à partir de l'archive AppCDS écrite par la JVM d'apprentissage
+     * @param directory Répertoire de l'archive
+     * @return
+     */
+    public static Seq<String> getStartupJvmOptions(@NonNull Path directory) {
+        return List.of("-XX:SharedArchiveFile=" + directory.resolve(ARCHIVE_FILE));
+    }
+
+    /**
+     * Ecrit les métadonnées de réflexion dans un répertoire
+     * @param directory Répertoire de destination (créé s'il n'existe pas)
+     */
+    public static void dump(@NonNull Path directory) {
+        Seq<String> metadata = getRecorded()
+                .map(e -> e._1().name() + SEPARATOR + e._2().getName())
+                .distinct()
+                .sorted();
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(METADATA_FILE), metadata, StandardCharsets.UTF_8);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(MessageFormat.format(ERR_WARMUP_WRITE, directory), e);
+        }
+    }
+
+    /**
+     * Charge les classes enregistrées lors d'un apprentissage et remplit les caches de réflexion.
+     * Les classes ne sont pas initialisées (leur initialisation statique reste à leur première utilisation).
+     * Les classes introuvables (supprimées depuis l'apprentissage) sont ignorées.
+     * @param directory Répertoire contenant les métadonnées
+     * @return Le nombre de classes préchargées, 0 si aucune métadonnée n'est présente
+     */
+    public static int warmUp(@NonNull Path directory) {
+        Path file = directory.resolve(METADATA_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        Seq<String> lines;
+        try {
+            lines = List.ofAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+        }
+        catch (IOException e) {
+            throw new RuntimeException(MessageFormat.format(ERR_WARMUP_READ, directory), e);
+        }
+        ClassLoader classLoader = Option.of(Thread.currentThread().getContextClassLoader())
+                .getOrElse(WarmupHelper.class.getClassLoader());
+        return lines
+                .filter(line -> line.contains(SEPARATOR))
+                .map(line -> Try.of(() -> Tuple.of(
+                        ESource.valueOf(line.substring(0, line.indexOf(SEPARATOR))),
+                        (Class<?>) Class.forName(line.substring(line.indexOf(SEPARATOR) + 1), false, classLoader)))
+                        .onFailure(e -> log.debug("Entrée de démarrage ignorée : {}", line, e)))
+                .filter(Try::isSuccess)
+                .map(Try::get)
+                .map(e -> Try.run(() -> warmUp(e._1(), e._2()))
+                        .onFailure(ex -> log.debug("Echec du préchargement de {}", e._2().getName(), ex)))
+                .count(Try::isSuccess);
+    }
+
+    // ------------------------------------------ Méthodes statiques privées --------------------------------------
+    /**
+     * Remplit les caches de réflexion pour une classe, selon le helper qui l'a utilisée
+     * @param source Helper
+     * @param clazz Classe
+     */
+    private static void warmUp(ESource source, Class<?> clazz) {
+        switch (source) {
+            case BEANS:
+                BeansHelper.getBeanFields(clazz);
+                break;
+            case ANNOTATIONS:
+                for (Class<?> c : getHierarchy(clazz)) {
+                    c.getAnnotations();
+                    for (Field field : c.getDeclaredFields()) {
+                        field.getAnnotations();
+                    }
+                }
+                break;
+            default:
+                for (Class<?> c : getHierarchy(clazz)) {
+                    c.getGenericSuperclass();
+                    c.getGenericInterfaces();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Retourne une classe et ses super-classes
+     * @param clazz Classe
+     * @return
+     */
+    private static Seq<Class<?>> getHierarchy(Class<?> clazz) {
+        List<Class<?>> result = List.empty();
+        Class<?> consideredClass = clazz;
+        while (consideredClass != null) {
+            result = result.append(consideredClass);
+            consideredClass = consideredClass.getSuperclass();
+        }
+        return result;
+    }
+
+    // --------------------------------- Classes incluses -----------------------------------
+
+    /**
+     * <p>
+     *                              Helper ayant manipulé une classe enregistrée
+     * </p>
+     *
+     * @author Cyril Chevalier
+     * @since 0.1.0
+     */
+    public enum ESource {
+
+        BEANS,
+        ANNOTATIONS,
+        GENERICS;
+    }
+}